@@ -0,0 +1,368 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Virtual-to-physical address translation: a set-associative TLB in front of a multi-level
+ * page table, with physical frames managed by a {@link ReplacementPolicy}.
+ *
+ * A 32-bit virtual address is split, from the top, into one index per page-table level
+ * followed by the page offset (e.g. levels {@code {10, 10}} and 12 offset bits is the classic
+ * two-level x86 layout). Each reference:
+ * <ol>
+ *   <li>looks up the virtual page number in the TLB set it maps to;</li>
+ *   <li>on a TLB miss walks the page table, one memory access per level reached;</li>
+ *   <li>if the page is not resident, takes a page fault: the frame policy picks a frame (and
+ *       a victim, whose page-table entry and TLB entry are invalidated) and the walk fills
+ *       in the missing tables and entry;</li>
+ *   <li>finally accesses the data in memory.</li>
+ * </ol>
+ * Every reference is also reported to the frame policy, so LRU-like policies see the full
+ * reference stream (as if the hardware's accessed bits were sampled exactly).
+ *
+ * Page tables live in one growable {@code int[]}: a table at level k is a run of
+ * {@code 2^levelBits[k]} entries, holding the offset of the next-level table (or frame + 1
+ * at the last level), 0 meaning absent. The TLB is a pair of {@code int[]}s with one stamp
+ * per way for LRU or FIFO victim selection. Nothing is allocated per reference.
+ *
+ * Usage:
+ * <pre>
+ * java AddressTranslator [addresses.bin | --random n] [--levels 10,10] [--page-bits 12]
+ *                        [--tlb-sets 16] [--tlb-ways 4] [--tlb-policy lru|fifo|random]
+ *                        [--frames 256] [--policy lru] [--tlb-ns 1] [--memory-ns 100] [--fault-ns 1000000]
+ * </pre>
+ */
+public class AddressTranslator {
+
+    /** How a TLB set picks the way to replace. */
+    public enum TlbPolicy { LRU, FIFO, RANDOM }
+
+    private static final int EMPTY = -1;
+
+    // Address layout
+    private final int pageBits;
+    private final int[] levelBits;
+    private final int[] levelShift;      // shift of each level's index within the page number
+
+    // Page tables
+    private int[] tables;
+    private int tablesUsed;              // entries allocated so far
+    private int tableCount;
+
+    // TLB
+    private final int sets;
+    private final int ways;
+    private final TlbPolicy tlbPolicy;
+    private final int[] tlbPage;         // set * ways + way -> virtual page, or EMPTY
+    private final int[] tlbFrame;
+    private final long[] tlbStamp;
+    private long clock;
+    private int seed = 0x9E3779B9;
+
+    private final ReplacementPolicy frames;
+
+    // Costs in ns
+    private final double tlbNanos;
+    private final double memoryNanos;
+    private final double faultNanos;
+
+    // Statistics
+    private long references;
+    private long tlbHits;
+    private long walks;
+    private long walkAccesses;
+    private long faults;
+    private long shootdowns;
+
+    /**
+     * @param levelBits   index bits per page-table level, top level first
+     * @param pageBits    offset bits (page size is {@code 2^pageBits} bytes)
+     * @param tlbSets     number of TLB sets (a power of two)
+     * @param tlbWays     associativity
+     * @param tlbPolicy   TLB replacement within a set
+     * @param frames      physical frame pool and its replacement policy
+     * @param tlbNanos    TLB lookup time
+     * @param memoryNanos one memory access (data or page-table entry)
+     * @param faultNanos  page fault service time
+     */
+    public AddressTranslator(int[] levelBits, int pageBits, int tlbSets, int tlbWays, TlbPolicy tlbPolicy,
+                             ReplacementPolicy frames, double tlbNanos, double memoryNanos, double faultNanos) {
+        int vpnBits = 0;
+        for (int b : levelBits) {
+            if (b <= 0) throw new IllegalArgumentException("Level bits must be positive: " + b);
+            vpnBits += b;
+        }
+        if (levelBits.length == 0 || pageBits < 0 || vpnBits + pageBits > 32 || vpnBits > 31) {
+            throw new IllegalArgumentException("Levels and offset must fit a 32-bit address with a 31-bit page number");
+        }
+        if (tlbSets <= 0 || Integer.bitCount(tlbSets) != 1 || tlbWays <= 0) {
+            throw new IllegalArgumentException("TLB sets must be a power of two and ways positive");
+        }
+        this.pageBits = pageBits;
+        this.levelBits = levelBits.clone();
+        this.levelShift = new int[levelBits.length];
+        for (int k = levelBits.length - 1, shift = 0; k >= 0; shift += levelBits[k--]) {
+            levelShift[k] = shift;
+        }
+
+        this.tables = new int[1 << levelBits[0]];
+        this.tablesUsed = 1 << levelBits[0];    // the root table sits at offset 0
+        this.tableCount = 1;
+
+        this.sets = tlbSets;
+        this.ways = tlbWays;
+        this.tlbPolicy = tlbPolicy;
+        this.tlbPage = new int[tlbSets * tlbWays];
+        this.tlbFrame = new int[tlbSets * tlbWays];
+        this.tlbStamp = new long[tlbSets * tlbWays];
+        Arrays.fill(tlbPage, EMPTY);
+
+        this.frames = frames;
+        this.tlbNanos = tlbNanos;
+        this.memoryNanos = memoryNanos;
+        this.faultNanos = faultNanos;
+    }
+
+    /**
+     * Translates one virtual address (read as unsigned 32 bits).
+     *
+     * @return the physical address
+     */
+    public long translate(int address) {
+        references++;
+        int vpn = (int) ((address & 0xFFFFFFFFL) >>> pageBits);
+        long offset = address & ((1L << pageBits) - 1);
+
+        boolean fault = frames.access(vpn);
+        if (fault) {
+            faults++;
+            int victim = frames.lastEvicted();
+            if (victim != -1) evict(victim);
+        }
+
+        int frame = tlbLookup(vpn);
+        if (frame == EMPTY) {
+            frame = walk(vpn, fault);
+            tlbInsert(vpn, frame);
+        } else {
+            tlbHits++;
+        }
+        return ((long) frame << pageBits) | offset;
+    }
+
+    /** Translates every address of a chunked trace. */
+    public void translateAll(ReferenceTrace trace) throws IOException {
+        int[] chunk = new int[ReferenceTrace.CHUNK];
+        int n;
+        while ((n = trace.read(chunk)) > 0) {
+            for (int i = 0; i < n; i++) translate(chunk[i]);
+        }
+    }
+
+    public long references() {
+        return references;
+    }
+
+    public double tlbHitRate() {
+        return references == 0 ? 0 : (double) tlbHits / references;
+    }
+
+    /** Page-table walks (one per TLB miss). */
+    public long walks() {
+        return walks;
+    }
+
+    /** Page-table entries read by all walks. */
+    public long walkAccesses() {
+        return walkAccesses;
+    }
+
+    public long faults() {
+        return faults;
+    }
+
+    /** Bytes of page tables allocated (4-byte entries). */
+    public long pageTableBytes() {
+        return 4L * tablesUsed;
+    }
+
+    /**
+     * Effective memory access time in ns: every reference pays the TLB lookup and the data
+     * access, walks pay one memory access per entry read, and faults pay the fault time.
+     */
+    public double effectiveAccessNanos() {
+        if (references == 0) return 0;
+        double total = references * (tlbNanos + memoryNanos) + walkAccesses * memoryNanos + faults * faultNanos;
+        return total / references;
+    }
+
+    /** Multi-line summary of the statistics. */
+    public String report() {
+        return String.format(
+            "References:        %,d%n"
+            + "TLB hit rate:      %.3f%% (%d sets x %d ways, %s)%n"
+            + "Page walks:        %,d (%,d entries read, %.2f per walk)%n"
+            + "Page faults:       %,d (%.4f%%, frames by %s)%n"
+            + "TLB shootdowns:    %,d%n"
+            + "Page tables:       %,d tables, %,d bytes%n"
+            + "EMAT:              %.2f ns%n",
+            references, 100 * tlbHitRate(), sets, ways, tlbPolicy,
+            walks, walkAccesses, walks == 0 ? 0.0 : (double) walkAccesses / walks,
+            faults, references == 0 ? 0.0 : 100.0 * faults / references, frames.name(),
+            shootdowns, tableCount, pageTableBytes(), effectiveAccessNanos());
+    }
+
+    /**
+     * Walks the page table for {@code vpn}. Tables and the leaf entry missing on a faulting
+     * walk are created; a walk that is not faulting always finds the page resident.
+     */
+    private int walk(int vpn, boolean fault) {
+        walks++;
+        int table = 0;
+        int last = levelBits.length - 1;
+        for (int k = 0; k < last; k++) {
+            walkAccesses++;
+            int slot = table + index(vpn, k);
+            if (tables[slot] == 0) {
+                int child = newTable(levelBits[k + 1]); // may reallocate `tables`
+                tables[slot] = child;
+            }
+            table = tables[slot];
+        }
+        walkAccesses++;
+        int slot = table + index(vpn, last);
+        if (fault || tables[slot] == 0) {
+            tables[slot] = frames.frameOf(vpn) + 1;
+        }
+        return tables[slot] - 1;
+    }
+
+    /** Clears the page-table entry and TLB entry of an evicted page. */
+    private void evict(int vpn) {
+        int table = 0;
+        for (int k = 0; k < levelBits.length - 1; k++) {
+            table = tables[table + index(vpn, k)];
+            if (table == 0) return;
+        }
+        tables[table + index(vpn, levelBits.length - 1)] = 0;
+
+        int base = (vpn & (sets - 1)) * ways;
+        for (int w = base; w < base + ways; w++) {
+            if (tlbPage[w] == vpn) {
+                tlbPage[w] = EMPTY;
+                shootdowns++;
+            }
+        }
+    }
+
+    private int tlbLookup(int vpn) {
+        int base = (vpn & (sets - 1)) * ways;
+        for (int w = base; w < base + ways; w++) {
+            if (tlbPage[w] == vpn) {
+                if (tlbPolicy == TlbPolicy.LRU) tlbStamp[w] = ++clock;
+                return tlbFrame[w];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void tlbInsert(int vpn, int frame) {
+        int base = (vpn & (sets - 1)) * ways;
+        int victim = -1;
+        for (int w = base; w < base + ways; w++) {
+            if (tlbPage[w] == EMPTY) {
+                victim = w;
+                break;
+            }
+        }
+        if (victim == -1) {
+            if (tlbPolicy == TlbPolicy.RANDOM) {
+                seed ^= seed << 13; seed ^= seed >>> 17; seed ^= seed << 5; // xorshift
+                victim = base + (int) ((seed & 0xFFFFFFFFL) % ways);
+            } else {
+                victim = base;
+                for (int w = base + 1; w < base + ways; w++) {
+                    if (tlbStamp[w] < tlbStamp[victim]) victim = w;
+                }
+            }
+        }
+        tlbPage[victim] = vpn;
+        tlbFrame[victim] = frame;
+        tlbStamp[victim] = ++clock;
+    }
+
+    private int index(int vpn, int level) {
+        return (vpn >>> levelShift[level]) & ((1 << levelBits[level]) - 1);
+    }
+
+    private int newTable(int bits) {
+        int offset = tablesUsed;
+        int size = 1 << bits;
+        if ((long) offset + size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Page tables exceed the simulator's table space");
+        }
+        if (offset + size > tables.length) {
+            tables = Arrays.copyOf(tables, Math.max(offset + size, tables.length << 1));
+        }
+        tablesUsed += size;
+        tableCount++;
+        return offset;
+    }
+
+    /** Runs a trace (or a synthetic one) through a translator configured from the command line. */
+    public static void main(String[] args) throws IOException {
+        String file = null;
+        int random = 10_000_000;
+        int[] levels = { 10, 10 };
+        int pageBits = 12, tlbSets = 16, tlbWays = 4, frameCount = 256;
+        TlbPolicy tlbPolicy = TlbPolicy.LRU;
+        String policy = "lru";
+        double tlbNs = 1, memoryNs = 100, faultNs = 1_000_000;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--random":     random = Integer.parseInt(args[++i]); break;
+                case "--levels":     levels = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--page-bits":  pageBits = Integer.parseInt(args[++i]); break;
+                case "--tlb-sets":   tlbSets = Integer.parseInt(args[++i]); break;
+                case "--tlb-ways":   tlbWays = Integer.parseInt(args[++i]); break;
+                case "--tlb-policy": tlbPolicy = TlbPolicy.valueOf(args[++i].toUpperCase()); break;
+                case "--frames":     frameCount = Integer.parseInt(args[++i]); break;
+                case "--policy":     policy = args[++i]; break;
+                case "--tlb-ns":     tlbNs = Double.parseDouble(args[++i]); break;
+                case "--memory-ns":  memoryNs = Double.parseDouble(args[++i]); break;
+                case "--fault-ns":   faultNs = Double.parseDouble(args[++i]); break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        AddressTranslator mmu = new AddressTranslator(levels, pageBits, tlbSets, tlbWays, tlbPolicy,
+                                                      PageReplacement.policy(policy, frameCount),
+                                                      tlbNs, memoryNs, faultNs);
+        long start = System.nanoTime();
+        if (file != null) {
+            try (ReferenceTrace trace = ReferenceTrace.map(Paths.get(file))) {
+                mmu.translateAll(trace);
+            }
+        } else {
+            // Synthetic: mostly sequential walks through a hot region, with occasional far jumps
+            SplittableRandom rnd = new SplittableRandom(42);
+            int[] cursor = { 0 };
+            mmu.translateAll(ReferenceTrace.of(IntStream.range(0, random).map(i -> {
+                if (rnd.nextInt(64) == 0) {
+                    cursor[0] = rnd.nextInt(8) == 0 ? rnd.nextInt() : rnd.nextInt(1 << 22);
+                }
+                return cursor[0] += 4 * (1 + rnd.nextInt(16));
+            })));
+        }
+        System.out.print(mmu.report());
+        System.out.printf("Simulated in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
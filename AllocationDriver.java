@@ -0,0 +1,306 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Runs an allocation trace against any {@link Allocator} and reports the outcome in one shape,
+ * so the contiguous fits, the buddy system and the slab allocator can be compared directly.
+ *
+ * A trace is an {@code int[]} of operations:
+ * <ul>
+ *   <li>{@code op >= 0} — allocate {@code op} units (this is request number r, counting
+ *       allocations only, from 0);</li>
+ *   <li>{@code op < 0}  — free the allocation made by request {@code -op - 1}
+ *       (ignored if that request failed).</li>
+ * </ul>
+ * The report has the per-request table printed by {@link MemoryManagement#printAllocation}
+ * plus internal fragmentation (reserved but unrequested units among live allocations),
+ * external fragmentation ({@code 1 - largestFree / freeMemory} after the trace) and ops/s.
+ *
+ * {@link #replay} additionally follows a timestamped {@link AllocationTrace}: it samples
+ * external fragmentation, the largest free block and the allocation failure rate at fixed
+ * time intervals, and records the latency of every allocate and free in a {@link Histogram}.
+ *
+ * Usage (random trace, every allocator):
+ * <pre>
+ * java AllocationDriver [blocks] [operations] [seed]
+ * </pre>
+ */
+public class AllocationDriver {
+
+    /** Outcome of one trace against one allocator. */
+    public static class Report {
+        public final String allocator;
+        public final int[] requestSizes;      // per allocation request
+        public final int[] allocatedBlocks;   // per allocation request: 0-based block, or -1
+        public final int failures;
+        public final long requested;          // units requested by allocations still live
+        public final long reserved;           // units reserved for allocations still live
+        public final long freeMemory;
+        public final int largestFree;
+        public final int operations;
+        public final long nanos;
+
+        Report(String allocator, int[] requestSizes, int[] allocatedBlocks, int failures,
+               long requested, long reserved, long freeMemory, int largestFree,
+               int operations, long nanos) {
+            this.allocator = allocator;
+            this.requestSizes = requestSizes;
+            this.allocatedBlocks = allocatedBlocks;
+            this.failures = failures;
+            this.requested = requested;
+            this.reserved = reserved;
+            this.freeMemory = freeMemory;
+            this.largestFree = largestFree;
+            this.operations = operations;
+            this.nanos = nanos;
+        }
+
+        /** Share of reserved units that were not asked for (0 when nothing is live). */
+        public double internalFragmentation() {
+            return reserved == 0 ? 0 : 1 - (double) requested / reserved;
+        }
+
+        /** Share of free memory outside the largest free region (0 when nothing is free). */
+        public double externalFragmentation() {
+            return freeMemory == 0 ? 0 : 1 - (double) largestFree / freeMemory;
+        }
+
+        public double opsPerSecond() {
+            return nanos == 0 ? 0 : operations * 1e9 / nanos;
+        }
+    }
+
+    /** Time series and latency distributions from {@link #replay}. */
+    public static class Replay {
+        public final Histogram allocateNanos = new Histogram();
+        public final Histogram freeNanos = new Histogram();
+
+        // One row per sample: state just before the first event at or after each interval boundary
+        private long[] sampleTime = new long[64];
+        private long[] sampleFree = new long[64];
+        private int[] sampleLargest = new int[64];
+        private double[] sampleFailureRate = new double[64];   // failed / attempted since the previous sample
+        private int samples;
+        private Report report;
+
+        private Replay() {
+        }
+
+        /** Final figures, as {@link #run} reports them. */
+        public Report report() {
+            return report;
+        }
+
+        public int samples() {
+            return samples;
+        }
+
+        public long time(int i) {
+            return sampleTime[i];
+        }
+
+        public long freeMemory(int i) {
+            return sampleFree[i];
+        }
+
+        public int largestFree(int i) {
+            return sampleLargest[i];
+        }
+
+        public double externalFragmentation(int i) {
+            return sampleFree[i] == 0 ? 0 : 1 - (double) sampleLargest[i] / sampleFree[i];
+        }
+
+        public double failureRate(int i) {
+            return sampleFailureRate[i];
+        }
+
+        private void sample(long t, Allocator allocator, double failureRate) {
+            if (samples == sampleTime.length) {
+                int cap = samples << 1;
+                sampleTime = Arrays.copyOf(sampleTime, cap);
+                sampleFree = Arrays.copyOf(sampleFree, cap);
+                sampleLargest = Arrays.copyOf(sampleLargest, cap);
+                sampleFailureRate = Arrays.copyOf(sampleFailureRate, cap);
+            }
+            sampleTime[samples] = t;
+            sampleFree[samples] = allocator.freeMemory();
+            sampleLargest[samples] = allocator.largestFree();
+            sampleFailureRate[samples++] = failureRate;
+        }
+    }
+
+    /** Replays {@code ops} against {@code allocator}. */
+    public static Report run(Allocator allocator, int[] ops) {
+        return drive(allocator, ops, null, 0, null);
+    }
+
+    /**
+     * Replays a timestamped trace, sampling every {@code interval} time units (and once after
+     * the last event) and timing each operation. Timing adds a clock read per operation, so
+     * the ops/s in the report is lower than {@link #run} measures.
+     */
+    public static Replay replay(Allocator allocator, AllocationTrace trace, long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Sampling interval must be positive: " + interval);
+        }
+        Replay replay = new Replay();
+        replay.report = drive(allocator, trace.ops, trace.time, interval, replay);
+        return replay;
+    }
+
+    /** The replay loop. With {@code replay == null} nothing is sampled or timed. */
+    private static Report drive(Allocator allocator, int[] ops, long[] time, long interval, Replay replay) {
+        boolean timed = replay != null;
+        long nextSample = timed && ops.length > 0 ? time[0] : Long.MAX_VALUE;
+        int windowAttempts = 0, windowFailures = 0;
+
+        int requests = 0;
+        for (int op : ops) {
+            if (op >= 0) requests++;
+        }
+        int[] sizes = new int[requests];
+        int[] blocks = new int[requests];
+        int[] handles = new int[requests];
+        Arrays.fill(blocks, -1);
+        Arrays.fill(handles, -1);
+
+        int r = 0, failures = 0;
+        long requested = 0, reserved = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < ops.length; i++) {
+            int op = ops[i];
+            if (timed && time[i] >= nextSample) {
+                replay.sample(time[i], allocator, windowAttempts == 0 ? 0 : (double) windowFailures / windowAttempts);
+                windowAttempts = windowFailures = 0;
+                // Skip whole empty intervals: one sample per boundary that events actually cross
+                nextSample += Math.max(1, (time[i] - nextSample) / interval + 1) * interval;
+            }
+            if (op >= 0) {
+                sizes[r] = op;
+                long t0 = timed ? System.nanoTime() : 0;
+                int h = allocator.allocate(op);
+                if (timed) {
+                    replay.allocateNanos.record(System.nanoTime() - t0);
+                    windowAttempts++;
+                }
+                if (h == -1) {
+                    failures++;
+                    if (timed) windowFailures++;
+                } else {
+                    handles[r] = h;
+                    blocks[r] = allocator.blockOf(h);
+                    requested += op;
+                    reserved += allocator.reservedSize(h);
+                }
+                r++;
+            } else {
+                int victim = -op - 1;
+                int h = handles[victim];
+                if (h != -1) {
+                    requested -= sizes[victim];
+                    reserved -= allocator.reservedSize(h);
+                    long t0 = timed ? System.nanoTime() : 0;
+                    allocator.free(h);
+                    if (timed) replay.freeNanos.record(System.nanoTime() - t0);
+                    handles[victim] = -1;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - begin;
+
+        if (timed && ops.length > 0) {
+            replay.sample(time[ops.length - 1], allocator,
+                          windowAttempts == 0 ? 0 : (double) windowFailures / windowAttempts);
+        }
+        return new Report(allocator.name(), sizes, blocks, failures, requested, reserved,
+                          allocator.freeMemory(), allocator.largestFree(), ops.length, nanos);
+    }
+
+    /** Prints the allocation table followed by the fragmentation figures. */
+    public static void print(Report report) {
+        MemoryManagement.printAllocation(report.requestSizes, report.allocatedBlocks);
+        System.out.printf("Internal fragmentation: %.1f%%, External fragmentation: %.1f%%%n",
+                          100 * report.internalFragmentation(), 100 * report.externalFragmentation());
+    }
+
+    /** Prints the sampled time series, the latency percentiles and the final figures of a replay. */
+    public static void print(Replay replay) {
+        Report r = replay.report();
+        StringBuilder sb = new StringBuilder();
+        sb.append('\n').append(r.allocator).append(" trace replay:\n");
+        sb.append(String.format("%14s %14s %14s %14s %14s%n",
+                                "Time", "Free", "Largest free", "External frag", "Failure rate"));
+        for (int i = 0; i < replay.samples(); i++) {
+            sb.append(String.format("%14d %14d %14d %13.1f%% %13.1f%%%n",
+                                    replay.time(i), replay.freeMemory(i), replay.largestFree(i),
+                                    100 * replay.externalFragmentation(i), 100 * replay.failureRate(i)));
+        }
+        sb.append("Allocate latency (ns): ").append(replay.allocateNanos.summary()).append('\n');
+        sb.append("Free latency (ns):     ").append(replay.freeNanos.summary()).append('\n');
+        sb.append(String.format("Requests: %d, Failures: %d, Internal fragmentation: %.1f%%, "
+                                + "External fragmentation: %.1f%%, %.0f ops/s%n",
+                                r.requestSizes.length, r.failures, 100 * r.internalFragmentation(),
+                                100 * r.externalFragmentation(), r.opsPerSecond()));
+        System.out.print(sb);
+    }
+
+    /**
+     * Random trace: each step allocates (sizes mostly small, occasionally large) or frees a
+     * random live allocation, keeping roughly {@code live} allocations outstanding.
+     */
+    public static int[] randomTrace(int operations, int live, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] ops = new int[operations];
+        int[] alive = new int[operations];
+        int aliveCount = 0, requests = 0;
+        for (int i = 0; i < operations; i++) {
+            boolean alloc = aliveCount == 0 || rnd.nextInt(2 * live) >= aliveCount;
+            if (alloc) {
+                ops[i] = rnd.nextInt(8) == 0 ? 1 + rnd.nextInt(1024) : 1 + rnd.nextInt(96);
+                alive[aliveCount++] = requests++;
+            } else {
+                int k = rnd.nextInt(aliveCount);
+                ops[i] = -alive[k] - 1;
+                alive[k] = alive[--aliveCount];
+            }
+        }
+        return ops;
+    }
+
+    /** Replays one random trace against every allocator and prints a comparison table. */
+    public static void main(String[] args) {
+        int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] memoryBlocks = new int[blockCount];
+        long total = 0;
+        for (int b = 0; b < blockCount; b++) {
+            memoryBlocks[b] = 1024 + rnd.nextInt(3072);
+            total += memoryBlocks[b];
+        }
+        // Aim for roughly 70% of memory in use at steady state (mean request ~ 170 units)
+        int[] ops = randomTrace(operations, (int) (total * 0.7 / 170), seed);
+
+        List<Allocator> allocators = new ArrayList<>();
+        for (FitAllocator.Policy policy : FitAllocator.Policy.values()) {
+            allocators.add(new FitAllocator(policy, memoryBlocks));
+        }
+        allocators.add(new BuddyAllocator(memoryBlocks, 16));
+        allocators.add(new SlabAllocator(new FitAllocator(FitAllocator.Policy.BEST, memoryBlocks), 16, 128, 1024));
+
+        System.out.printf("%-12s %10s %10s %14s %14s %14s%n",
+                          "Allocator", "Requests", "Failures", "Internal frag", "External frag", "ops/s");
+        for (Allocator allocator : allocators) {
+            Report r = run(allocator, ops);
+            System.out.printf("%-12s %10d %10d %13.1f%% %13.1f%% %14.0f%n",
+                              r.allocator, r.requestSizes.length, r.failures,
+                              100 * r.internalFragmentation(), 100 * r.externalFragmentation(),
+                              r.opsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A timestamped stream of allocation and free events, ready to replay with
+ * {@link AllocationDriver#replay}.
+ *
+ * Text format, one event per line (blank lines and lines starting with {@code #} are skipped,
+ * as are malformed lines):
+ * <pre>
+ * # time  op     id   size
+ * 0       alloc  1    212
+ * 3       alloc  2    417
+ * 5       free   1
+ * </pre>
+ * Ids are the trace's own names for allocations and may be reused once freed; allocs of ids
+ * that are still live are skipped like malformed lines, and frees of ids that are not live
+ * are ignored. Timestamps are in any unit and must not decrease.
+ *
+ * Events are stored in the driver's encoding (an allocation size, or {@code -request-1} for a
+ * free), so ids are resolved once while loading, through an {@link IntIntMap}.
+ *
+ * Usage (replay against every strategy):
+ * <pre>
+ * java AllocationTrace trace.txt [--memory 100,500,200] [--interval 1000]
+ * </pre>
+ */
+public class AllocationTrace {
+
+    final long[] time;
+    final int[] ops;
+
+    AllocationTrace(long[] time, int[] ops) {
+        if (time.length != ops.length) {
+            throw new IllegalArgumentException("Column length mismatch");
+        }
+        this.time = time;
+        this.ops = ops;
+    }
+
+    public int size() {
+        return ops.length;
+    }
+
+    /** Time of the first and last event (0 when empty). */
+    public long start() {
+        return time.length == 0 ? 0 : time[0];
+    }
+
+    public long end() {
+        return time.length == 0 ? 0 : time[time.length - 1];
+    }
+
+    /**
+     * Reads a trace file.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if timestamps decrease
+     */
+    public static AllocationTrace load(Path file) throws IOException {
+        long[] time = new long[1024];
+        int[] ops = new int[1024];
+        int n = 0, requests = 0;
+        IntIntMap live = new IntIntMap(1024); // trace id -> request number
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens.length < 3 || tokens[0].startsWith("#")) continue;
+
+                long t;
+                int id, op;
+                try {
+                    t = Long.parseLong(tokens[0]);
+                    id = Integer.parseInt(tokens[2]);
+                    if (tokens[1].equals("alloc") && tokens.length >= 4) {
+                        op = Integer.parseInt(tokens[3]);
+                        if (op < 0) continue;
+                    } else if (tokens[1].equals("free")) {
+                        op = -1;
+                    } else {
+                        continue;
+                    }
+                } catch (NumberFormatException e) {
+                    continue; // skip malformed lines
+                }
+                if (n > 0 && t < time[n - 1]) {
+                    throw new IllegalArgumentException("Timestamps decrease at t=" + t + ": " + line);
+                }
+
+                if (op >= 0) {
+                    if (live.get(id) != -1) continue; // already live: malformed, skip
+                    live.put(id, requests++);
+                } else {
+                    int request = live.remove(id);
+                    if (request == -1) continue; // not live
+                    op = -request - 1;
+                }
+
+                if (n == ops.length) {
+                    time = Arrays.copyOf(time, n << 1);
+                    ops = Arrays.copyOf(ops, n << 1);
+                }
+                time[n] = t;
+                ops[n++] = op;
+            }
+        }
+        return new AllocationTrace(Arrays.copyOf(time, n), Arrays.copyOf(ops, n));
+    }
+
+    /** Replays a trace file against every allocation strategy and prints the results. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java AllocationTrace trace.txt [--memory 100,500,200] [--interval t]");
+            System.exit(2);
+        }
+        int[] memoryBlocks = { 1 << 20 };
+        long interval = 0;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--memory":
+                    memoryBlocks = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--interval":
+                    interval = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        AllocationTrace trace = load(Paths.get(args[0]));
+        if (interval <= 0) {
+            interval = Math.max(1, (trace.end() - trace.start()) / 20); // ~20 samples
+        }
+
+        List<Allocator> allocators = new ArrayList<>();
+        for (FitAllocator.Policy policy : FitAllocator.Policy.values()) {
+            allocators.add(new FitAllocator(policy, memoryBlocks));
+        }
+        allocators.add(new BuddyAllocator(memoryBlocks, 1));
+        allocators.add(new SlabAllocator(new FitAllocator(FitAllocator.Policy.BEST, memoryBlocks), 8, 128, 1024));
+
+        System.out.println(trace.size() + " events, t=" + trace.start() + ".." + trace.end());
+        for (Allocator allocator : allocators) {
+            AllocationDriver.print(AllocationDriver.replay(allocator, trace, interval));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * A contiguous memory allocator that can be driven by an allocation trace.
+ *
+ * Allocations are identified by opaque non-negative handles. Sizes are in the same
+ * unit as the memory blocks the allocator was built over (KB in the demos).
+ */
+public interface Allocator {
+
+    /**
+     * Allocates {@code size} units.
+     *
+     * @return a handle for the allocation, or -1 if no free region can hold it
+     */
+    int allocate(int size);
+
+    /** Releases an allocation returned by {@link #allocate(int)}. */
+    void free(int handle);
+
+    /** 0-based number of the memory block (partition) the allocation lives in. */
+    int blockOf(int handle);
+
+    /**
+     * Units actually reserved for an allocation. Anything above the requested size is
+     * internal fragmentation (e.g. buddy rounding to a power of two, slab size classes).
+     */
+    int reservedSize(int handle);
+
+    /** Total free units. */
+    long freeMemory();
+
+    /** Size of the largest free region, i.e. the largest request that can currently succeed. */
+    int largestFree();
+
+    /** Short name for reports, e.g. "Best-Fit". */
+    String name();
+}
@@ -0,0 +1,197 @@
+import java.util.Arrays;
+
+/**
+ * ARC (Adaptive Replacement Cache, Megiddo and Modha) page replacement.
+ *
+ * Resident pages are split between T1 (seen once recently) and T2 (seen at least twice), and
+ * the cache also remembers the pages it recently evicted from each: the ghost lists B1 and
+ * B2, which hold page numbers only. A fault on a B1 ghost means T1 was too small, a fault on
+ * a B2 ghost that T2 was; the target size of T1 moves accordingly, so ARC adapts between
+ * recency and frequency and a one-off scan cannot flush the frequently used pages out of T2.
+ *
+ * The four lists are intrusive doubly-linked lists over one node pool of {@code 2 × frames}
+ * entries (list id and links in {@code int[]}s), with an {@link IntIntMap} from page to node.
+ * Every reference is O(1) and allocates nothing.
+ */
+public class ArcReplacement implements ReplacementPolicy {
+
+    private static final int NIL = -1;
+    private static final int T1 = 0, T2 = 1, B1 = 2, B2 = 3;
+
+    private final int capacity;
+
+    // Node pool
+    private final int[] page;
+    private final int[] list;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] frame;           // resident nodes only
+    private final int[] freeNodes;
+    private int freeNodeCount;
+
+    private final int[] freeFrames;
+    private int freeFrameCount;
+
+    // Lists: head = LRU end, tail = MRU end
+    private final int[] head = new int[4];
+    private final int[] tail = new int[4];
+    private final int[] size = new int[4];
+
+    private final IntIntMap nodeOf;      // page -> node, resident or ghost
+    private int target;                  // adaptive target size of T1
+    private long faults;
+    private int lastEvicted = -1;
+
+    public ArcReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        capacity = frames;
+        int nodes = 2 * frames + 1;
+        page = new int[nodes];
+        list = new int[nodes];
+        prev = new int[nodes];
+        next = new int[nodes];
+        frame = new int[nodes];
+        freeNodes = new int[nodes];
+        for (int n = 0; n < nodes; n++) freeNodes[n] = nodes - 1 - n;
+        freeNodeCount = nodes;
+        freeFrames = new int[frames];
+        for (int f = 0; f < frames; f++) freeFrames[f] = frames - 1 - f;
+        freeFrameCount = frames;
+        Arrays.fill(head, NIL);
+        Arrays.fill(tail, NIL);
+        nodeOf = new IntIntMap(nodes);
+    }
+
+    @Override
+    public boolean access(int p) {
+        int n = nodeOf.get(p);
+        if (n != NIL && list[n] <= T2) {
+            // Hit in T1 or T2: now seen at least twice
+            moveToMru(n, T2);
+            return false;
+        }
+
+        faults++;
+        lastEvicted = -1;
+        if (n != NIL && list[n] == B1) {
+            target = Math.min(capacity, target + Math.max(1, size[B2] / size[B1]));
+            replace(false);
+            moveToMru(n, T2);
+        } else if (n != NIL) {
+            target = Math.max(0, target - Math.max(1, size[B1] / size[B2]));
+            replace(true);
+            moveToMru(n, T2);
+        } else {
+            int l1 = size[T1] + size[B1];
+            if (l1 == capacity) {
+                if (size[T1] < capacity) {
+                    delete(head[B1]);
+                    replace(false);
+                } else {
+                    // B1 is empty and T1 fills the cache: drop T1's LRU page outright
+                    int v = head[T1];
+                    lastEvicted = page[v];
+                    freeFrames[freeFrameCount++] = frame[v];
+                    delete(v);
+                }
+            } else {
+                int total = l1 + size[T2] + size[B2];
+                if (total >= capacity) {
+                    if (total == 2 * capacity) delete(head[B2]);
+                    replace(false);
+                }
+            }
+            n = freeNodes[--freeNodeCount];
+            page[n] = p;
+            nodeOf.put(p, n);
+            link(n, T1);
+        }
+        frame[n] = freeFrames[--freeFrameCount];
+        return true;
+    }
+
+    /** Evicts the LRU page of T1 or T2 into its ghost list, as ARC's REPLACE step. */
+    private void replace(boolean inB2) {
+        if (size[T1] + size[T2] < capacity) return; // a frame is still free
+        int v;
+        if (size[T1] > 0 && ((inB2 && size[T1] == target) || size[T1] > target || size[T2] == 0)) {
+            v = head[T1];
+            moveToMru(v, B1);
+        } else {
+            v = head[T2];
+            moveToMru(v, B2);
+        }
+        lastEvicted = page[v];
+        freeFrames[freeFrameCount++] = frame[v];
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        int n = nodeOf.get(p);
+        return n != NIL && list[n] <= T2 ? frame[n] : -1;
+    }
+
+    @Override
+    public int frames() {
+        return capacity;
+    }
+
+    @Override
+    public int resident() {
+        return size[T1] + size[T2];
+    }
+
+    /** Resident pages: T1 from least to most recent, then T2 likewise. */
+    @Override
+    public int snapshot(int[] out) {
+        int i = 0;
+        for (int l = T1; l <= T2; l++) {
+            for (int n = head[l]; n != NIL; n = next[n]) out[i++] = page[n];
+        }
+        return i;
+    }
+
+    @Override
+    public String name() {
+        return "ARC";
+    }
+
+    private void moveToMru(int n, int l) {
+        unlink(n);
+        link(n, l);
+    }
+
+    private void delete(int n) {
+        unlink(n);
+        nodeOf.remove(page[n]);
+        freeNodes[freeNodeCount++] = n;
+    }
+
+    private void link(int n, int l) {
+        list[n] = l;
+        prev[n] = tail[l];
+        next[n] = NIL;
+        if (tail[l] != NIL) next[tail[l]] = n; else head[l] = n;
+        tail[l] = n;
+        size[l]++;
+    }
+
+    private void unlink(int n) {
+        int l = list[n];
+        if (prev[n] != NIL) next[prev[n]] = next[n]; else head[l] = next[n];
+        if (next[n] != NIL) prev[next[n]] = prev[n]; else tail[l] = prev[n];
+        size[l]--;
+    }
+}
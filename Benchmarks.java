@@ -0,0 +1,341 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Micro-benchmark harness for the schedulers, memory allocators and page replacers.
+ *
+ * Each benchmark is run on synthetic inputs parameterised by size and distribution.
+ * For every (benchmark, size, distribution) cell the harness does time-boxed warmup
+ * iterations, then time-boxed measurement iterations, and reports:
+ * <ul>
+ *   <li>throughput in operations/s (one op = one full run over the input) and elements/s,</li>
+ *   <li>allocation rate in MB/s and normalised bytes per op (the numbers JMH's
+ *       {@code -prof gc} reports as gc.alloc.rate and gc.alloc.rate.norm), measured with the
+ *       per-thread allocation counter,</li>
+ *   <li>GC collections during measurement.</li>
+ * </ul>
+ * Schedulers are measured headless (their {@code run} methods). Benchmarks that can only
+ * print (the original console demos) run with {@code System.out} redirected to a discarding
+ * stream, so their cost includes formatting but not the terminal.
+ *
+ * Like JMH's forks, every benchmark runs in a fresh JVM (same java, class path and JVM
+ * options), so the JIT profile built by one benchmark does not skew the next. With
+ * {@code --no-fork} everything runs in this JVM, which is quicker but lets earlier benchmarks
+ * pollute the profiles of later ones (e.g. megamorphic call sites); compare such numbers only
+ * within one run.
+ *
+ * Usage:
+ * <pre>
+ * java Benchmarks [--sizes 1e3,1e4,1e5,1e6,1e7] [--dists uniform,exponential,pareto]
+ *                 [--filter text] [--warmup 3] [--iterations 5] [--millis 500] [--csv] [--no-fork]
+ * </pre>
+ * The largest sizes need a few hundred MB of heap per input set (e.g. {@code -Xmx2g}); use
+ * {@code --sizes} for a quicker run.
+ */
+public class Benchmarks {
+
+    /** One benchmark operation over pre-generated inputs; returns a value to keep the JIT honest. */
+    interface Op {
+        long run();
+    }
+
+    /** Synthetic inputs shared by every benchmark in a (size, distribution) cell. */
+    static class Inputs {
+        final int size;
+        final String dist;
+        final ProcessTable table;
+        final int[] memoryBlocks;
+        final int[] processSizes;
+        final int[] pages;
+
+        Inputs(int size, String dist, long seed) {
+            this.size = size;
+            this.dist = dist;
+            SplittableRandom rnd = new SplittableRandom(seed);
+
+            // Process trace: arrivals with the chosen inter-arrival distribution, bursts 1..~100.
+            table = new ProcessTable(size);
+            int t = 0;
+            for (int i = 0; i < size; i++) {
+                t += sample(rnd, dist, 4);
+                table.add(i + 1, t, 1 + sample(rnd, dist, 10), 1 + rnd.nextInt(8));
+            }
+            table.trim();
+
+            // Memory: a fixed pool of partitions and `size` requests.
+            int blocks = Math.min(size, 1000);
+            memoryBlocks = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                memoryBlocks[i] = 100 + sample(rnd, dist, 400);
+            }
+            processSizes = new int[size];
+            for (int i = 0; i < size; i++) {
+                processSizes[i] = 1 + sample(rnd, dist, 40);
+            }
+
+            // Page references over a working set of ~1000 pages.
+            pages = new int[size];
+            for (int i = 0; i < size; i++) {
+                pages[i] = Math.min(sample(rnd, dist, 100), 999);
+            }
+        }
+
+        /** Non-negative sample with roughly the given mean. */
+        static int sample(SplittableRandom rnd, String dist, int mean) {
+            switch (dist) {
+                case "uniform":
+                    return rnd.nextInt(2 * mean + 1);
+                case "exponential":
+                    return (int) (-mean * Math.log(1 - rnd.nextDouble()));
+                case "pareto": {
+                    // shape 1.5, scale chosen so the mean is `mean`; capped to keep sums in int range
+                    double alpha = 1.5, xm = mean * (alpha - 1) / alpha;
+                    double x = xm / Math.pow(1 - rnd.nextDouble(), 1 / alpha);
+                    return (int) Math.min(x, 1000.0 * mean);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown distribution: " + dist);
+            }
+        }
+    }
+
+    private static final PrintStream OUT = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private static int warmup = 3;
+    private static int iterations = 5;
+    private static long millis = 500;
+    private static boolean csv;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<Integer> sizes = new ArrayList<>(Arrays.asList(1_000, 10_000, 100_000, 1_000_000, 10_000_000));
+        List<String> dists = Arrays.asList("uniform", "exponential", "pareto");
+        String filter = "";
+        String only = null;         // exact benchmark name; set for a forked child
+        boolean fork = true;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes":
+                    sizes.clear();
+                    for (String s : args[++i].split(",")) sizes.add((int) Double.parseDouble(s));
+                    break;
+                case "--dists":      dists = Arrays.asList(args[++i].split(",")); break;
+                case "--filter":     filter = args[++i]; break;
+                case "--warmup":     warmup = Integer.parseInt(args[++i]); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--millis":     millis = Long.parseLong(args[++i]); break;
+                case "--csv":        csv = true; break;
+                case "--no-fork":    fork = false; break;
+                case "--only":       only = args[++i]; fork = false; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        if (only == null) {
+            if (csv) {
+                OUT.println("benchmark,size,dist,ops_per_s,ops_err,elems_per_s,alloc_mb_per_s,bytes_per_op,gc_count");
+            } else {
+                OUT.printf("%-28s %9s %-12s %14s %14s %12s %14s %6s%n",
+                           "Benchmark", "Size", "Dist", "ops/s", "elems/s", "alloc MB/s", "B/op", "GCs");
+            }
+        }
+
+        if (fork) {
+            // One child JVM per benchmark, with this run's options; rows go straight to our stdout.
+            for (String name : benchmarkNames()) {
+                if (name.contains(filter)) forkBenchmark(name, args);
+            }
+            return;
+        }
+
+        for (int size : sizes) {
+            for (String dist : dists) {
+                Inputs in = new Inputs(size, dist, 42);
+                for (String name : benchmarkNames()) {
+                    if (only != null ? name.equals(only) : name.contains(filter)) {
+                        measure(name, in, op(name, in));
+                    }
+                }
+            }
+        }
+    }
+
+    /** Runs one benchmark over every cell in a child JVM and waits for it. */
+    private static void forkBenchmark(String name, String[] args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Benchmarks.class.getName());
+        command.addAll(Arrays.asList(args));
+        command.add("--only");
+        command.add(name);
+        int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (status != 0) {
+            System.err.println("Benchmark " + name + " failed in its forked JVM (exit status " + status + ")");
+        }
+    }
+
+    /** Every benchmark, in report order. */
+    static List<String> benchmarkNames() {
+        return Arrays.asList(
+            "FCFS", "SJF", "SJFEngine",
+            "RoundRobin.q1", "RoundRobin.q2", "RoundRobin.q10", "RoundRobin.q100",
+            "RoundRobinEngine.q1", "RoundRobinEngine.q2", "RoundRobinEngine.q10", "RoundRobinEngine.q100",
+            "PriorityScheduling",
+            "MemoryManagement.firstFit", "MemoryManagement.bestFit", "MemoryManagement.worstFit",
+            "PageReplacement.fifo", "PageReplacement.lru",
+            "FifoReplacement", "LruReplacement", "OptReplacement", "ClockReplacement",
+            "LfuReplacement", "ArcReplacement", "LirsReplacement", "MissRatioCurve"
+        );
+    }
+
+    /** Builds the operation for a benchmark name over the given inputs. */
+    static Op op(String name, Inputs in) {
+        ProcessTable t = in.table;
+        int n = t.size();
+        int frames = 64;
+
+        if (name.startsWith("RoundRobinEngine.q")) {
+            int q = Integer.parseInt(name.substring("RoundRobinEngine.q".length()));
+            int[] completion = new int[n];
+            return () -> {
+                RoundRobinEngine.run(t.arrival, t.burst, q, completion, null);
+                return completion[n - 1];
+            };
+        }
+        if (name.startsWith("RoundRobin.q")) {
+            int q = Integer.parseInt(name.substring("RoundRobin.q".length()));
+            return () -> RoundRobin.run(t, q).makespan;
+        }
+        switch (name) {
+            case "FCFS":
+                return () -> FCFS.run(t).makespan;
+            case "SJF":
+                return () -> SJF.run(t).makespan;
+            case "SJFEngine": {
+                int[] order = new int[n];
+                int[] completion = new int[n];
+                return () -> {
+                    SJFEngine.run(t.arrival, t.burst, order, completion);
+                    return completion[order[n - 1]];
+                };
+            }
+            case "PriorityScheduling":
+                return () -> PriorityScheduling.run(t).makespan;
+            case "MemoryManagement.firstFit":
+                return () -> { MemoryManagement.firstFit(in.memoryBlocks.clone(), in.processSizes); return 0; };
+            case "MemoryManagement.bestFit":
+                return () -> { MemoryManagement.bestFit(in.memoryBlocks.clone(), in.processSizes); return 0; };
+            case "MemoryManagement.worstFit":
+                return () -> { MemoryManagement.worstFit(in.memoryBlocks.clone(), in.processSizes); return 0; };
+            case "PageReplacement.fifo":
+                return () -> { PageReplacement.fifo(in.pages, frames); return 0; };
+            case "PageReplacement.lru":
+                return () -> { PageReplacement.lru(in.pages, frames); return 0; };
+            case "FifoReplacement":
+                return () -> PageReplacement.run(new FifoReplacement(frames), in.pages, false);
+            case "LruReplacement":
+                return () -> PageReplacement.run(new LruReplacement(frames), in.pages, false);
+            case "OptReplacement":
+                return () -> PageReplacement.run(new OptReplacement(frames, in.pages), in.pages, false);
+            case "ClockReplacement":
+                return () -> PageReplacement.run(new ClockReplacement(frames), in.pages, false);
+            case "LfuReplacement":
+                return () -> PageReplacement.run(new LfuReplacement(frames), in.pages, false);
+            case "ArcReplacement":
+                return () -> PageReplacement.run(new ArcReplacement(frames), in.pages, false);
+            case "LirsReplacement":
+                return () -> PageReplacement.run(new LirsReplacement(frames), in.pages, false);
+            case "MissRatioCurve":
+                return () -> {
+                    MissRatioCurve curve = new MissRatioCurve();
+                    curve.accessAll(in.pages);
+                    return curve.faults(frames);
+                };
+            default:
+                throw new IllegalArgumentException("Unknown benchmark: " + name);
+        }
+    }
+
+    /** Runs warmup + measurement iterations for one cell and prints a result row. */
+    static void measure(String name, Inputs in, Op op) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long sink = 0;
+
+        System.setOut(DISCARD);
+        try {
+            for (int w = 0; w < warmup; w++) {
+                sink += runFor(op, millis)[0];
+            }
+
+            double[] opsPerSec = new double[iterations];
+            long totalOps = 0, totalNanos = 0;
+            long gcBefore = gcCount();
+            long allocBefore = threads.getThreadAllocatedBytes(tid);
+            for (int it = 0; it < iterations; it++) {
+                long[] r = runFor(op, millis);
+                opsPerSec[it] = r[1] * 1e9 / r[2];
+                totalOps += r[1];
+                totalNanos += r[2];
+                sink += r[0];
+            }
+            long allocated = threads.getThreadAllocatedBytes(tid) - allocBefore;
+            long gcs = gcCount() - gcBefore;
+
+            double mean = Arrays.stream(opsPerSec).average().orElse(0);
+            double err = Math.sqrt(Arrays.stream(opsPerSec).map(x -> (x - mean) * (x - mean)).sum()
+                                   / Math.max(1, iterations - 1));
+            double allocRate = allocated / (totalNanos / 1e9) / (1 << 20);
+            double bytesPerOp = allocated / (double) totalOps;
+
+            if (csv) {
+                OUT.printf("%s,%d,%s,%.3f,%.3f,%.1f,%.2f,%.1f,%d%n",
+                           name, in.size, in.dist, mean, err, mean * in.size, allocRate, bytesPerOp, gcs);
+            } else {
+                OUT.printf("%-28s %9d %-12s %9.1f +-%3.0f%% %14.4g %12.1f %14.1f %6d%n",
+                           name, in.size, in.dist, mean, mean == 0 ? 0 : 100 * err / mean,
+                           mean * in.size, allocRate, bytesPerOp, gcs);
+            }
+        } finally {
+            System.setOut(OUT);
+        }
+        if (sink == 42) OUT.print(""); // consume the results
+    }
+
+    /** Runs {@code op} repeatedly for at least {@code ms} (and at least once): {sink, ops, nanos}. */
+    private static long[] runFor(Op op, long ms) {
+        long sink = 0, ops = 0;
+        long start = System.nanoTime();
+        long deadline = start + ms * 1_000_000L;
+        long now;
+        do {
+            sink += op.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return new long[] { sink, ops, now - start };
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact, versioned binary format for process traces.
+ *
+ * Layout (all values little-endian):
+ * <pre>
+ * offset  size  field
+ * 0       4     magic   'P' 'T' 'R' 'C'
+ * 4       2     version (currently 1)
+ * 6       2     flags   (bit 0: arrival column is delta-encoded)
+ * 8       8     row count n
+ * 16      4n    pid column
+ * 16+4n   4n    arrival column (absolute, or differences from the previous row)
+ * 16+8n   4n    burst column
+ * 16+12n  4n    priority column
+ * </pre>
+ *
+ * {@link #map(Path)} memory-maps a file and exposes each column as an {@link IntBuffer}
+ * view over the mapping — nothing is parsed or copied. {@link #toTable()} bulk-copies the
+ * columns into a {@link ProcessTable} (a straight memory copy per column, plus a prefix
+ * sum when arrivals are delta-encoded).
+ *
+ * A trace is mapped as a single buffer, which caps a file at 2 GB (about 134M processes).
+ */
+public final class BinaryTrace {
+
+    static final int MAGIC = 0x43525450;   // "PTRC" read as a little-endian int
+    static final short VERSION = 1;
+    static final short FLAG_DELTA_ARRIVALS = 1;
+    static final int HEADER_BYTES = 16;
+
+    private final IntBuffer pid;
+    private final IntBuffer arrival;
+    private final IntBuffer burst;
+    private final IntBuffer priority;
+    private final int size;
+    private final boolean deltaArrivals;
+
+    private BinaryTrace(ByteBuffer data, int size, boolean deltaArrivals) {
+        this.size = size;
+        this.deltaArrivals = deltaArrivals;
+        this.pid = column(data, 0);
+        this.arrival = column(data, 1);
+        this.burst = column(data, 2);
+        this.priority = column(data, 3);
+    }
+
+    /**
+     * Memory-maps a binary trace. The returned views stay valid as long as the mapping
+     * is reachable; the file channel itself is closed before returning.
+     *
+     * @throws IOException if the file cannot be read or is not a valid trace
+     */
+    public static BinaryTrace map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Trace larger than 2 GB cannot be mapped as one buffer: " + file);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buf.remaining() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary process trace: " + file);
+            }
+            short version = buf.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported trace version " + version + " in " + file);
+            }
+            short flags = buf.getShort(6);
+            long n = buf.getLong(8);
+            if (n < 0 || n > Integer.MAX_VALUE || HEADER_BYTES + 16 * n > buf.capacity()) {
+                throw new IOException("Corrupt trace header (rows = " + n + ") in " + file);
+            }
+            return new BinaryTrace(buf, (int) n, (flags & FLAG_DELTA_ARRIVALS) != 0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Zero-copy view of the pid column. */
+    public IntBuffer pids() {
+        return pid.duplicate();
+    }
+
+    /** Zero-copy view of the arrival column (deltas if {@link #deltaArrivals()}). */
+    public IntBuffer arrivals() {
+        return arrival.duplicate();
+    }
+
+    /** Zero-copy view of the burst column. */
+    public IntBuffer bursts() {
+        return burst.duplicate();
+    }
+
+    /** Zero-copy view of the priority column. */
+    public IntBuffer priorities() {
+        return priority.duplicate();
+    }
+
+    /** Whether the arrival column stores differences rather than absolute times. */
+    public boolean deltaArrivals() {
+        return deltaArrivals;
+    }
+
+    /** Copies the mapped columns into a new {@link ProcessTable}. */
+    public ProcessTable toTable() {
+        ProcessTable t = ProcessTable.ofColumns(new int[size], new int[size], new int[size], new int[size]);
+        pids().get(t.pid);
+        arrivals().get(t.arrival);
+        bursts().get(t.burst);
+        priorities().get(t.priority);
+        if (deltaArrivals) {
+            for (int i = 1; i < size; i++) {
+                t.arrival[i] += t.arrival[i - 1];
+            }
+        }
+        System.arraycopy(t.burst, 0, t.remaining, 0, size); // remaining starts at burst
+        return t;
+    }
+
+    /**
+     * Writes {@code table} as a binary trace.
+     *
+     * @param deltaArrivals store arrivals as differences from the previous row
+     *                      (small numbers, friendlier to compression on sorted traces)
+     */
+    public static void write(ProcessTable table, Path file, boolean deltaArrivals) throws IOException {
+        int n = table.size();
+        long bytes = HEADER_BYTES + 16L * n;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Too many processes for one binary trace: " + n);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC)
+               .putShort(VERSION)
+               .putShort(deltaArrivals ? FLAG_DELTA_ARRIVALS : 0)
+               .putLong(n);
+
+            IntBuffer ints = buf.asIntBuffer();
+            ints.put(table.pid, 0, n);
+            if (deltaArrivals) {
+                int prev = 0;
+                for (int i = 0; i < n; i++) {
+                    ints.put(table.arrival[i] - prev);
+                    prev = table.arrival[i];
+                }
+            } else {
+                ints.put(table.arrival, 0, n);
+            }
+            ints.put(table.burst, 0, n)
+                .put(table.priority, 0, n);
+            buf.force();
+        }
+    }
+
+    /**
+     * Converts a text trace ({@code processes.txt} format) to the binary format.
+     *
+     * Usage: {@code java BinaryTrace <input.txt> <output.bin> [--delta]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java BinaryTrace <input.txt> <output.bin> [--delta]");
+            System.exit(2);
+        }
+        boolean delta = args.length > 2 && args[2].equals("--delta");
+        ProcessTable table = TraceLoader.loadTable(Paths.get(args[0]));
+        write(table, Paths.get(args[1]), delta);
+        System.out.println("Wrote " + table.size() + " processes to " + args[1]);
+    }
+
+    /** View of column {@code c} (0 = pid .. 3 = priority) inside the data area. */
+    private IntBuffer column(ByteBuffer data, int c) {
+        ByteBuffer slice = data.duplicate();
+        slice.position(HEADER_BYTES + c * 4 * size);
+        slice.limit(HEADER_BYTES + (c + 1) * 4 * size);
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * Power-of-two buddy allocator.
+ *
+ * Memory is managed in pages of {@code pageSize} units. Each memory block is carved into
+ * the largest naturally aligned power-of-two chunks that fit inside it, so the buddy of a
+ * block of order k starting at page p is simply page {@code p ^ (1 << k)}. For every order
+ * there is
+ * <ul>
+ *   <li>a free list (intrusive, doubly linked through {@code int[]} arrays indexed by page), and</li>
+ *   <li>a bitmap with one bit per aligned block of that order, set while the block is free,</li>
+ * </ul>
+ * so a split pushes the upper half onto the next-lower free list, and a free checks the
+ * buddy's bit and merges upwards in O(1) per level. Allocation and free are O(log n).
+ *
+ * Requests are rounded up to a power-of-two number of pages; the rounding is internal
+ * fragmentation and is reported through {@link #reservedSize(int)}.
+ */
+public class BuddyAllocator implements Allocator {
+
+    private static final int NIL = -1;
+    private static final int MAX_ORDER = 31;
+
+    private final int pageSize;
+    private final int pages;
+    private final int[] blockStartPage;   // first page of each memory block, for blockOf()
+
+    private final byte[] chunkOrder;      // order of the top-level chunk containing each page
+    private final byte[] allocOrder;      // order of the allocated block headed at a page, or -1
+    private final long[][] freeBits;      // freeBits[k]: bit (p >> k) set if block (p, k) is free
+    private final int[] head = new int[MAX_ORDER + 1];
+    private final int[] next;
+    private final int[] prev;
+
+    private long freePages;
+
+    /**
+     * @param memoryBlocks size of each block in units; block i starts where block i-1 ends
+     * @param pageSize     smallest allocation granule in units (requests round up to it)
+     */
+    public BuddyAllocator(int[] memoryBlocks, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.pageSize = pageSize;
+
+        long total = 0;
+        for (int b : memoryBlocks) total += b;
+        if (total / pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many pages: " + total / pageSize);
+        }
+        this.pages = (int) (total / pageSize);
+
+        chunkOrder = new byte[pages];
+        allocOrder = new byte[pages];
+        Arrays.fill(allocOrder, (byte) -1);
+        next = new int[pages];
+        prev = new int[pages];
+        Arrays.fill(head, NIL);
+        freeBits = new long[MAX_ORDER + 1][];
+        for (int k = 0; k <= MAX_ORDER; k++) {
+            freeBits[k] = new long[(int) ((((long) pages >> k) + 64) >> 6)];
+        }
+
+        // Carve each block into aligned power-of-two chunks (partial pages at the edges are lost).
+        blockStartPage = new int[memoryBlocks.length];
+        long address = 0;
+        for (int b = 0; b < memoryBlocks.length; b++) {
+            int first = (int) ((address + pageSize - 1) / pageSize);
+            address += memoryBlocks[b];
+            int end = (int) (address / pageSize);
+            blockStartPage[b] = first;
+
+            int p = first;
+            while (p < end) {
+                int k = p == 0 ? MAX_ORDER : Integer.numberOfTrailingZeros(p);
+                while ((1L << k) > end - p) k--;
+                Arrays.fill(chunkOrder, p, p + (1 << k), (byte) k);
+                push(p, k);
+                freePages += 1L << k;
+                p += 1 << k;
+            }
+        }
+    }
+
+    @Override
+    public int allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative request: " + size);
+        }
+        long needed = Math.max(1, ((long) size + pageSize - 1) / pageSize);
+        int k = 64 - Long.numberOfLeadingZeros(needed - 1); // ceil(log2(needed))
+        if (k > MAX_ORDER) return -1;
+
+        // Smallest order >= k with a free block
+        int j = k;
+        while (j <= MAX_ORDER && head[j] == NIL) j++;
+        if (j > MAX_ORDER) return -1;
+
+        int p = head[j];
+        pop(p, j);
+        // Split down, returning upper halves to the free lists
+        while (j > k) {
+            j--;
+            push(p + (1 << j), j);
+        }
+        allocOrder[p] = (byte) k;
+        freePages -= 1L << k;
+        return p;
+    }
+
+    @Override
+    public void free(int handle) {
+        if (handle < 0 || handle >= pages || allocOrder[handle] < 0) {
+            throw new IllegalArgumentException("Not an allocated handle: " + handle);
+        }
+        int p = handle;
+        int k = allocOrder[p];
+        allocOrder[p] = -1;
+        freePages += 1L << k;
+
+        // Merge with free buddies while the merged block stays inside the chunk
+        while (k < chunkOrder[p]) {
+            int buddy = p ^ (1 << k);
+            if (!isFree(buddy, k)) break;
+            pop(buddy, k);
+            p = Math.min(p, buddy);
+            k++;
+        }
+        push(p, k);
+    }
+
+    @Override
+    public int blockOf(int handle) {
+        int b = Arrays.binarySearch(blockStartPage, handle);
+        if (b < 0) b = -b - 2;
+        // Skip empty blocks that share a start page with the next one
+        while (b + 1 < blockStartPage.length && blockStartPage[b + 1] == handle) b++;
+        return b;
+    }
+
+    @Override
+    public int reservedSize(int handle) {
+        return (1 << allocOrder[handle]) * pageSize;
+    }
+
+    @Override
+    public long freeMemory() {
+        return freePages * pageSize;
+    }
+
+    @Override
+    public int largestFree() {
+        for (int k = MAX_ORDER; k >= 0; k--) {
+            if (head[k] != NIL) return (int) Math.min(Integer.MAX_VALUE, (1L << k) * pageSize);
+        }
+        return 0;
+    }
+
+    @Override
+    public String name() {
+        return "Buddy";
+    }
+
+    private boolean isFree(int p, int k) {
+        int bit = p >>> k;
+        return (freeBits[k][bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void push(int p, int k) {
+        int bit = p >>> k;
+        freeBits[k][bit >>> 6] |= 1L << bit;
+        prev[p] = NIL;
+        next[p] = head[k];
+        if (head[k] != NIL) prev[head[k]] = p;
+        head[k] = p;
+    }
+
+    private void pop(int p, int k) {
+        int bit = p >>> k;
+        freeBits[k][bit >>> 6] &= ~(1L << bit);
+        if (prev[p] != NIL) next[prev[p]] = next[p]; else head[k] = next[p];
+        if (next[p] != NIL) prev[next[p]] = prev[p];
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.List;
+
+/**
+ * Completely Fair Scheduler (CFS-style) over virtual runtime.
+ * - Each process has a weight derived from its priority, used as a Linux nice value
+ *   (clamped to -20..19): nice 0 weighs 1024 and each step is worth about 1.25x.
+ * - Running for t time units advances a process's virtual runtime by {@code t * 1024 / weight},
+ *   so heavier (higher-priority) processes age more slowly and get a larger CPU share.
+ * - The ready process with the smallest virtual runtime runs next. Its slice is its weighted
+ *   share of the target latency, {@code latency * weight / runnable weight}, but never less than
+ *   the minimum granularity.
+ * - A new process starts at the queue's minimum virtual runtime (so it cannot monopolise the CPU
+ *   by starting from zero) and preempts the running process if it is behind it by more than
+ *   the minimum granularity, in virtual time.
+ *
+ * Built on the {@link EventSimulator} kernel with the ready set in an {@link IndexedHeap} keyed
+ * on virtual runtime, so every dispatch, arrival and slice end is O(log n). Equal virtual
+ * runtimes (common, since arrivals all start at the minimum) go to the earlier arrival: the
+ * arrival rank is packed into the low bits of the key.
+ * Virtual runtime is kept in fixed point ({@link #SHIFT} fractional bits) to stay exact for
+ * every weight.
+ */
+public class CFS extends EventSimulator {
+
+    /** Linux's sched_prio_to_weight table, nice -20..19. */
+    private static final int[] NICE_TO_WEIGHT = {
+        88761, 71755, 56483, 46273, 36291,
+        29154, 23254, 18705, 14949, 11916,
+         9548,  7620,  6100,  4904,  3906,
+         3121,  2501,  1991,  1586,  1277,
+         1024,   820,   655,   526,   423,
+          335,   272,   215,   172,   137,
+          110,    87,    70,    56,    45,
+           36,    29,    23,    18,    15,
+    };
+    private static final int NICE_0_WEIGHT = 1024;
+
+    /** Fractional bits of virtual runtime. */
+    static final int SHIFT = 16;
+
+    /** Default configuration for the demos, in trace time units. */
+    static final int DEFAULT_LATENCY = 8;
+    static final int DEFAULT_GRANULARITY = 1;
+
+    private final int latency;
+    private final int granularity;
+
+    private final int[] weight;        // per process
+    private final long[] vruntime;     // per process, fixed point
+    private final boolean[] admitted;  // per process: has been placed on the queue once
+    private final IndexedHeap ready;   // ids are arrival ranks, keys are (vruntime, rank)
+    private final int rankBits;        // low key bits holding the arrival rank
+    private long runnableWeight;       // queued plus running
+    private long minVruntime;          // monotonic floor of the smallest vruntime
+
+    CFS(int[] arrival, int[] burst, int[] priority, int latency, int granularity) {
+        super(arrival, burst);
+        if (latency <= 0 || granularity <= 0) {
+            throw new IllegalArgumentException("Latency and granularity must be positive: "
+                                               + latency + ", " + granularity);
+        }
+        int n = arrival.length;
+        this.latency = latency;
+        this.granularity = granularity;
+        this.weight = new int[n];
+        this.vruntime = new long[n];
+        this.admitted = new boolean[n];
+        this.ready = new IndexedHeap(Math.min(n, 1 << 16));
+        this.rankBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+        for (int p = 0; p < n; p++) {
+            weight[p] = weightOf(priority[p]);
+        }
+    }
+
+    /** Weight of a priority value read as a nice level. */
+    static int weightOf(int priority) {
+        return NICE_TO_WEIGHT[Math.max(-20, Math.min(19, priority)) + 20];
+    }
+
+    @Override
+    protected void enqueue(int p) {
+        if (!admitted[p]) {
+            // First time on a queue: start level with the current minimum.
+            admitted[p] = true;
+            vruntime[p] = minVruntime;
+            runnableWeight += weight[p];
+        }
+        if (vruntime[p] >>> (63 - rankBits) != 0) {
+            throw new ArithmeticException("Virtual runtime too large for the ready-queue key: " + vruntime[p]);
+        }
+        ready.insert(rank[p], (vruntime[p] << rankBits) | rank[p]);
+    }
+
+    @Override
+    protected int pollNext() {
+        if (ready.isEmpty()) return -1;
+        int p = byArrival[ready.poll()];
+        updateMin(vruntime[p]);
+        return p;
+    }
+
+    @Override
+    protected boolean shouldPreempt(int arriving, int running) {
+        long current = vruntime[running] + scaled(remaining[running] - remainingNow(running), running);
+        return vruntime[arriving] + scaled(granularity, arriving) < current;
+    }
+
+    @Override
+    protected int slice(int p) {
+        long share = (long) latency * weight[p] / runnableWeight;
+        return (int) Math.max(granularity, share);
+    }
+
+    @Override
+    protected void charge(int p, int ran) {
+        vruntime[p] += scaled(ran, p);
+        long min;
+        if (remaining[p] == 0) {
+            runnableWeight -= weight[p];
+            min = ready.isEmpty() ? minVruntime : queuedMin();
+        } else {
+            min = ready.isEmpty() ? vruntime[p] : Math.min(vruntime[p], queuedMin());
+        }
+        updateMin(min);
+    }
+
+    /** Smallest virtual runtime in the (non-empty) ready queue. */
+    private long queuedMin() {
+        return ready.key(ready.peek()) >>> rankBits;
+    }
+
+    /** Virtual time for {@code t} units of CPU time on process {@code p}. */
+    private long scaled(long t, int p) {
+        return (t * NICE_0_WEIGHT << SHIFT) / weight[p];
+    }
+
+    private void updateMin(long candidate) {
+        if (candidate > minVruntime) minVruntime = candidate;
+    }
+
+    /**
+     * Runs CFS with the default latency over a list; see {@link #schedule(ProcessTable)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     */
+    public static void schedule(List<Process> processes) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Runs CFS with a target latency of 8 and a minimum granularity of 1 time unit, and prints
+     * the same report as the other schedulers.
+     *
+     * @param table processes to schedule (not modified)
+     */
+    public static void schedule(ProcessTable table) {
+        if (table.isEmpty()) {
+            System.out.println("\nCFS: No processes to schedule.");
+            return;
+        }
+        ScheduleRenderer.print(run(table, DEFAULT_LATENCY, DEFAULT_GRANULARITY));
+    }
+
+    /**
+     * Simulates CFS without producing any output.
+     *
+     * @param table       processes to schedule (not modified, safe to share between threads once trimmed)
+     * @param latency     target time in which every runnable process runs once
+     * @param granularity minimum slice, and the virtual lead a new process needs to preempt
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult run(ProcessTable table, int latency, int granularity) {
+        table.trim();
+        CFS sim = new CFS(table.arrival, table.burst, table.priority, latency, granularity);
+        sim.run();
+        return new ScheduleResult("CFS (Latency = " + latency + ", Granularity = " + granularity + ")",
+                                  table, sim.completion(), null, sim.timeline());
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Clock (Second-Chance) page replacement.
+ *
+ * Frames form a circle with one reference bit each, kept in a {@code long[]} bitmap. A hit
+ * only sets the page's bit. On a fault the hand sweeps forward, clearing set bits (the
+ * page's second chance), and replaces the first page whose bit is clear; newly loaded pages
+ * start with a clear bit. Second-Chance is the same policy described as a FIFO queue in
+ * which a referenced page is moved to the back instead of being evicted, so both names
+ * give the same faults; {@link #snapshot(int[])} lists pages in that queue order.
+ */
+public class ClockReplacement implements ReplacementPolicy {
+
+    private final int[] page;            // frame -> page
+    private final long[] referenced;     // one bit per frame
+    private final IntIntMap frameOf;     // page -> frame
+    private int hand;
+    private int resident;
+    private long faults;
+    private int lastEvicted = -1;
+
+    public ClockReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        page = new int[frames];
+        referenced = new long[(frames + 63) >>> 6];
+        frameOf = new IntIntMap(frames);
+    }
+
+    @Override
+    public boolean access(int p) {
+        int f = frameOf.get(p);
+        if (f != -1) {
+            referenced[f >>> 6] |= 1L << f;
+            return false;
+        }
+
+        if (resident < page.length) {
+            f = resident++;
+            lastEvicted = -1;
+        } else {
+            // Give referenced pages a second chance; stops within one revolution
+            while ((referenced[hand >>> 6] & (1L << hand)) != 0) {
+                referenced[hand >>> 6] &= ~(1L << hand);
+                hand = hand + 1 == page.length ? 0 : hand + 1;
+            }
+            f = hand;
+            hand = hand + 1 == page.length ? 0 : hand + 1;
+            lastEvicted = page[f];
+            frameOf.remove(lastEvicted);
+        }
+        page[f] = p;
+        frameOf.put(p, f);
+        faults++;
+        return true;
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        return frameOf.get(p);
+    }
+
+    @Override
+    public int frames() {
+        return page.length;
+    }
+
+    @Override
+    public int resident() {
+        return resident;
+    }
+
+    /** Resident pages starting at the hand, i.e. in Second-Chance queue order. */
+    @Override
+    public int snapshot(int[] out) {
+        for (int i = 0, f = hand; i < resident; i++) {
+            out[i] = page[f];
+            f = f + 1 == page.length ? 0 : f + 1;
+        }
+        return resident;
+    }
+
+    @Override
+    public String name() {
+        return "Clock";
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe Clock whose hits take no lock.
+ *
+ * The state {@link ClockReplacement} keeps in plain arrays lives in atomic arrays here:
+ * <ul>
+ *   <li>the page table — open addressing over an {@link AtomicLongArray} of packed
+ *       {@code (page << 32) | frame} entries, deleted by backward shift;</li>
+ *   <li>the page held by each frame, in an {@link AtomicIntegerArray};</li>
+ *   <li>one reference bit per frame, in an {@link AtomicIntegerArray}.</li>
+ * </ul>
+ * A hit is a lock-free lookup, a check that the frame still holds the page, and — only if the
+ * bit is clear — a write of the reference bit, so hot pages do not bounce cache lines between
+ * threads. Faults (sweeping the hand, evicting, and updating the page table) are serialised by
+ * one fault lock, as a kernel serialises page-ins against its page table.
+ *
+ * A lookup racing with a fault can miss an entry that is being moved by a deletion, or find
+ * an entry whose frame is being reused; both are caught (by the re-check under the lock, and
+ * by the frame check) so a page is never reported resident when it is not. The only visible
+ * effect of a race is a reference bit set on a freshly loaded page, which only gives it a
+ * second chance.
+ */
+public class ConcurrentClockReplacement implements ConcurrentReplacement {
+
+    private static final long EMPTY = -1L;   // never a valid entry: pages are non-negative
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final int shift;
+    private final AtomicIntegerArray pageOf;      // frame -> page
+    private final AtomicIntegerArray referenced;  // frame -> 0 or 1
+    private final ReentrantLock faultLock = new ReentrantLock();
+
+    // Written under faultLock only
+    private int hand;
+    private int resident;
+    private long acquisitions;
+    private long contended;
+
+    public ConcurrentClockReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        int cap = Integer.highestOneBit(Math.max(4, frames * 4 - 1)) << 1; // load factor <= 1/4
+        table = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) table.set(i, EMPTY);
+        mask = cap - 1;
+        shift = Integer.numberOfLeadingZeros(cap) + 1;
+        pageOf = new AtomicIntegerArray(frames);
+        referenced = new AtomicIntegerArray(frames);
+    }
+
+    @Override
+    public boolean access(int page) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Negative page: " + page);
+        }
+        int f = lookup(page);
+        if (f != -1 && pageOf.get(f) == page) {
+            if (referenced.get(f) == 0) referenced.set(f, 1);
+            return false;
+        }
+
+        boolean waited = !faultLock.tryLock();
+        if (waited) faultLock.lock();
+        try {
+            acquisitions++;
+            if (waited) contended++;
+
+            // Another thread may have loaded the page while this one waited.
+            f = lookup(page);
+            if (f != -1) {
+                referenced.set(f, 1);
+                return false;
+            }
+
+            int frames = pageOf.length();
+            if (resident < frames) {
+                f = resident++;
+            } else {
+                while (referenced.get(hand) != 0) {
+                    referenced.set(hand, 0);
+                    hand = hand + 1 == frames ? 0 : hand + 1;
+                }
+                f = hand;
+                hand = hand + 1 == frames ? 0 : hand + 1;
+                remove(pageOf.get(f));
+            }
+            // Re-point the frame before publishing the entry, so a reader holding the victim's
+            // entry sees the frame change and falls back to this slow path.
+            pageOf.set(f, page);
+            referenced.set(f, 0);
+            insert(page, f);
+            return true;
+        } finally {
+            faultLock.unlock();
+        }
+    }
+
+    /** Frame recorded for {@code page}, or -1. Lock-free; may miss an entry being moved. */
+    private int lookup(int page) {
+        for (int i = slot(page), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            long e = table.get(i);
+            if (e == EMPTY) return -1;
+            if ((int) (e >>> 32) == page) return (int) e;
+        }
+        return -1;
+    }
+
+    /** Adds an entry for an absent page. Caller holds the fault lock. */
+    private void insert(int page, int frame) {
+        int i = slot(page);
+        while (table.get(i) != EMPTY) i = (i + 1) & mask;
+        table.set(i, ((long) page << 32) | frame);
+    }
+
+    /**
+     * Removes a present page by backward shift. Each moved entry is written to its new slot
+     * before its old slot is overwritten, so a concurrent lookup sees it at least once unless
+     * it has already probed past the new slot. Caller holds the fault lock.
+     */
+    private void remove(int page) {
+        int i = slot(page);
+        while ((int) (table.get(i) >>> 32) != page) i = (i + 1) & mask;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            long e = table.get(j);
+            if (e == EMPTY) break;
+            int home = slot((int) (e >>> 32));
+            // Move e back to the hole unless its home lies cyclically in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                table.set(i, e);
+                i = j;
+            }
+        }
+        table.set(i, EMPTY);
+    }
+
+    /**
+     * Checks the page table against the frames: one entry per resident frame, each pointing at
+     * a frame that holds its page, and no page twice. Only meaningful while no thread is
+     * accessing the cache.
+     *
+     * @return a description of the first inconsistency found, or {@code null} if there is none
+     */
+    String inconsistency() {
+        int entries = 0;
+        IntIntMap seen = new IntIntMap(Math.max(16, resident * 2));
+        for (int i = 0; i <= mask; i++) {
+            long e = table.get(i);
+            if (e == EMPTY) continue;
+            int page = (int) (e >>> 32), frame = (int) e;
+            entries++;
+            if (frame < 0 || frame >= resident) return "page " + page + " maps to unused frame " + frame;
+            if (pageOf.get(frame) != page) {
+                return "page " + page + " maps to frame " + frame + ", which holds page " + pageOf.get(frame);
+            }
+            if (seen.get(page) != -1) return "page " + page + " has two entries";
+            seen.put(page, frame);
+            if (lookup(page) != frame) return "page " + page + " is not reachable from its home slot";
+        }
+        return entries == resident ? null : entries + " page table entries for " + resident + " resident frames";
+    }
+
+    private int slot(int page) {
+        return (page * 0x9E3779B9) >>> shift;
+    }
+
+    @Override
+    public long acquisitions() {
+        return acquisitions;
+    }
+
+    @Override
+    public long contended() {
+        return contended;
+    }
+
+    @Override
+    public int frames() {
+        return pageOf.length();
+    }
+
+    @Override
+    public String name() {
+        return "Clock (lock-free hits)";
+    }
+}
@@ -0,0 +1,287 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Replays interleaved reference streams from K threads against one shared frame pool, to
+ * measure what concurrency costs each {@link ConcurrentReplacement}.
+ *
+ * Each thread replays its own {@code int[]} stream (a slice of one trace dealt out round-robin,
+ * or an independent synthetic stream) from memory, so the run measures the cache and not I/O.
+ * All threads are released together and the wall time runs until the last one finishes.
+ * The report gives, per variant and thread count:
+ * <ul>
+ *   <li>throughput (references/s) and its scaling relative to the first thread count;</li>
+ *   <li>hit rate — which for the approximate variants can differ from sequential LRU;</li>
+ *   <li>contention — the share of lock acquisitions that had to wait.</li>
+ * </ul>
+ *
+ * Every configuration is run once untimed before its timed run, so the first thread count is
+ * not measured on a cold JIT. A worker that throws fails the whole run instead of reporting a
+ * partial result.
+ *
+ * Usage:
+ * <pre>
+ * java ConcurrentPageCache [--threads 1,2,4,8] [--frames 4096] [--pages 65536]
+ *                          [--references 20000000] [--stripes 16] [--seed 42] [--verify] [trace.bin]
+ * </pre>
+ * A trace is a packed file as written by {@link ReferenceTrace#write}; only its first
+ * {@code --references} references are used. {@code --verify} checks the variants instead of
+ * timing them (see {@link #verify}) and exits with status 1 on a failure.
+ */
+public class ConcurrentPageCache {
+
+    /** Outcome of one multi-threaded replay. */
+    public static class Result {
+        public final String cache;
+        public final int threads;
+        public final long references;
+        public final long faults;
+        public final long acquisitions;
+        public final long contended;
+        public final long nanos;
+
+        Result(String cache, int threads, long references, long faults, long acquisitions,
+               long contended, long nanos) {
+            this.cache = cache;
+            this.threads = threads;
+            this.references = references;
+            this.faults = faults;
+            this.acquisitions = acquisitions;
+            this.contended = contended;
+            this.nanos = nanos;
+        }
+
+        public double hitRate() {
+            return references == 0 ? 0 : 1 - (double) faults / references;
+        }
+
+        public double referencesPerSecond() {
+            return nanos == 0 ? 0 : references * 1e9 / nanos;
+        }
+
+        /** Share of lock acquisitions that had to wait (0 when no lock was taken). */
+        public double contention() {
+            return acquisitions == 0 ? 0 : (double) contended / acquisitions;
+        }
+    }
+
+    /**
+     * Replays {@code streams[t]} on thread t, all threads against {@code cache}.
+     *
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws IllegalStateException  if a worker failed (its exception is the cause; runtime
+     *                                exceptions and errors are rethrown as they are)
+     */
+    public static Result run(ConcurrentReplacement cache, int[][] streams) throws InterruptedException {
+        int k = streams.length;
+        long[] faults = new long[k];
+        Throwable[] failures = new Throwable[k];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[k];
+        for (int t = 0; t < k; t++) {
+            int[] stream = streams[t];
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    long f = 0;
+                    for (int page : stream) {
+                        if (cache.access(page)) f++;
+                    }
+                    faults[id] = f;
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+            }, "replay-" + t);
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long nanos = System.nanoTime() - begin;
+        for (Throwable e : failures) {
+            if (e instanceof RuntimeException) throw (RuntimeException) e;
+            if (e instanceof Error) throw (Error) e;
+            if (e != null) throw new IllegalStateException("Replay thread failed", e);
+        }
+
+        long references = 0, totalFaults = 0;
+        for (int t = 0; t < k; t++) {
+            references += streams[t].length;
+            totalFaults += faults[t];
+        }
+        return new Result(cache.name(), k, references, totalFaults, cache.acquisitions(), cache.contended(), nanos);
+    }
+
+    /** Deals {@code references} out round-robin: thread t gets references t, t + k, t + 2k, ... */
+    public static int[][] interleave(int[] references, int k) {
+        int[][] streams = new int[k][];
+        for (int t = 0; t < k; t++) {
+            int[] s = new int[(references.length - t + k - 1) / k];
+            for (int i = 0, j = t; j < references.length; i++, j += k) s[i] = references[j];
+            streams[t] = s;
+        }
+        return streams;
+    }
+
+    /**
+     * Skewed synthetic references over {@code pages} pages: page {@code pages * u^3} for uniform
+     * u, so low page numbers are hot and the tail is long.
+     */
+    public static int[] skewed(int length, int pages, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] refs = new int[length];
+        for (int i = 0; i < length; i++) {
+            double u = rnd.nextDouble();
+            refs[i] = (int) (pages * u * u * u);
+        }
+        return refs;
+    }
+
+    private static final int VARIANTS = 3;
+
+    /** A fresh instance of variant {@code v}: global-lock LRU, striped LRU, lock-free-hit Clock. */
+    private static ConcurrentReplacement variant(int v, int frames, int stripes) {
+        switch (v) {
+            case 0:  return new StripedLruReplacement(frames, 1);
+            case 1:  return new StripedLruReplacement(frames, stripes);
+            default: return new ConcurrentClockReplacement(frames);
+        }
+    }
+
+    /**
+     * Checks the variants against their single-threaded counterparts and under concurrency:
+     * <ul>
+     *   <li>on one thread, the lock-free Clock faults exactly where {@link ClockReplacement}
+     *       does, and single-stripe LRU exactly where {@link LruReplacement} does;</li>
+     *   <li>after {@code threads} threads replay the trace together, every variant has
+     *       faulted at least once per distinct page, and the lock-free Clock's page table is
+     *       consistent with its frames.</li>
+     * </ul>
+     * Prints one line per check to {@code out}.
+     *
+     * @return {@code true} if every check passed
+     */
+    public static boolean verify(int[] trace, int frames, int stripes, int threads, PrintStream out)
+            throws InterruptedException {
+        boolean ok = true;
+
+        ClockReplacement clock = new ClockReplacement(frames);
+        ConcurrentClockReplacement concurrentClock = new ConcurrentClockReplacement(frames);
+        LruReplacement lru = new LruReplacement(frames);
+        StripedLruReplacement oneStripe = new StripedLruReplacement(frames, 1);
+        long clockMismatch = -1, lruMismatch = -1;
+        for (int i = 0; i < trace.length; i++) {
+            if (clockMismatch < 0 && clock.access(trace[i]) != concurrentClock.access(trace[i])) clockMismatch = i;
+            if (lruMismatch < 0 && lru.access(trace[i]) != oneStripe.access(trace[i])) lruMismatch = i;
+        }
+        ok &= report(out, concurrentClock.name() + " matches Clock on one thread", clockMismatch < 0,
+                     "first difference at reference " + clockMismatch);
+        ok &= report(out, oneStripe.name() + " matches LRU on one thread", lruMismatch < 0,
+                     "first difference at reference " + lruMismatch);
+        String sequential = concurrentClock.inconsistency();
+        ok &= report(out, concurrentClock.name() + " page table consistent after one thread", sequential == null, sequential);
+
+        IntIntMap distinct = new IntIntMap(1024);
+        for (int page : trace) distinct.put(page, 0);
+        int[][] streams = interleave(trace, threads);
+        for (int v = 0; v < VARIANTS; v++) {
+            ConcurrentReplacement cache = variant(v, frames, stripes);
+            Result r = run(cache, streams);
+            ok &= report(out, cache.name() + " on " + threads + " threads faults on every new page",
+                         r.faults >= distinct.size(), r.faults + " faults for " + distinct.size() + " distinct pages");
+            if (cache instanceof ConcurrentClockReplacement) {
+                String problem = ((ConcurrentClockReplacement) cache).inconsistency();
+                ok &= report(out, cache.name() + " page table consistent after " + threads + " threads",
+                             problem == null, problem);
+            }
+        }
+        return ok;
+    }
+
+    static boolean report(PrintStream out, String check, boolean passed, String detail) {
+        out.println((passed ? "PASS " : "FAIL ") + check + (passed || detail == null ? "" : ": " + detail));
+        return passed;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int[] threadCounts = { 1, 2, 4, 8 };
+        int frames = 4096, pages = 65536, references = 20_000_000, stripes = 16;
+        long seed = 42;
+        String file = null;
+        boolean verify = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":    threadCounts = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--frames":     frames = Integer.parseInt(args[++i]); break;
+                case "--pages":      pages = Integer.parseInt(args[++i]); break;
+                case "--references": references = Integer.parseInt(args[++i]); break;
+                case "--stripes":    stripes = Integer.parseInt(args[++i]); break;
+                case "--seed":       seed = Long.parseLong(args[++i]); break;
+                case "--verify":     verify = true; break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        int[] trace;
+        if (file != null) {
+            try (ReferenceTrace in = ReferenceTrace.map(Paths.get(file))) {
+                trace = new int[(int) Math.min(references, in.size())];
+                int[] chunk = new int[ReferenceTrace.CHUNK];
+                int n = 0, got;
+                while (n < trace.length && (got = in.read(chunk)) > 0) {
+                    int take = Math.min(got, trace.length - n);
+                    System.arraycopy(chunk, 0, trace, n, take);
+                    n += take;
+                }
+            }
+        } else {
+            trace = skewed(references, pages, seed);
+        }
+
+        if (verify) {
+            int threads = Arrays.stream(threadCounts).max().orElse(1);
+            if (!verify(trace, frames, stripes, threads, System.out)) System.exit(1);
+            return;
+        }
+
+        // Sequential LRU hit rate over the same references, as the reference point
+        LruReplacement lru = new LruReplacement(frames);
+        for (int page : trace) lru.access(page);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d references, %d frames; sequential LRU hit rate %.2f%%%n%n",
+                                trace.length, frames, 100 * (1 - (double) lru.faults() / Math.max(1, trace.length))));
+        sb.append(String.format("%-24s %8s %16s %9s %10s %12s%n",
+                                "Cache", "Threads", "References/s", "Scaling", "Hit rate", "Contention"));
+
+        for (int v = 0; v < VARIANTS; v++) {
+            double base = 0;   // throughput at the first thread count
+            for (int k : threadCounts) {
+                int[][] streams = interleave(trace, k);
+                run(variant(v, frames, stripes), streams); // warm-up, untimed
+                Result r = run(variant(v, frames, stripes), streams);
+                if (base == 0) base = r.referencesPerSecond();
+                sb.append(String.format("%-24s %8d %16.0f %8.2fx %9.2f%% %11.2f%%%n",
+                                        r.cache, k, r.referencesPerSecond(), r.referencesPerSecond() / base,
+                                        100 * r.hitRate(), 100 * r.contention()));
+            }
+        }
+        System.out.print(sb);
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * A page cache over a fixed frame pool that many threads may reference at once — the
+ * thread-safe counterpart of {@link ReplacementPolicy}.
+ *
+ * Besides hits and misses (counted by the caller from {@link #access(int)}), implementations
+ * count how often a thread had to wait for a lock, which is the cost of concurrency that a
+ * single-threaded replay cannot show. Counters may lag slightly while threads are running;
+ * they are exact once every thread has finished.
+ */
+public interface ConcurrentReplacement {
+
+    /**
+     * References {@code page} (non-negative), loading it and evicting a victim if it is not
+     * resident. Safe to call from any number of threads.
+     *
+     * @return {@code true} on a page fault
+     */
+    boolean access(int page);
+
+    /** Lock acquisitions so far (0 for paths that take no lock). */
+    long acquisitions();
+
+    /** Lock acquisitions that found the lock held and had to wait. */
+    long contended();
+
+    /** Number of frames. */
+    int frames();
+
+    /** Short name for reports, e.g. "Striped LRU (16)". */
+    String name();
+}
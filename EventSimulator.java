@@ -0,0 +1,240 @@
+/**
+ * Discrete-event simulation kernel shared by the preemptive schedulers.
+ *
+ * The kernel keeps a time-ordered queue of ARRIVAL, COMPLETION and QUANTUM_EXPIRY
+ * events and jumps the clock straight from one event to the next, so the cost of a
+ * run is proportional to the number of events, not to the total simulated time.
+ * Subclasses only decide policy:
+ * <ul>
+ *   <li>{@link #enqueue(int)} / {@link #pollNext()} – the ready queue,</li>
+ *   <li>{@link #shouldPreempt(int, int)} – whether an arrival kicks the running process off the CPU,</li>
+ *   <li>{@link #slice(int)} / {@link #charge(int, int)} – per-dispatch time slices and CPU-time
+ *       accounting, for policies whose slice depends on the process (MLFQ levels, CFS weights),</li>
+ *   <li>{@link #scheduleTimer(int)} / {@link #onTimer()} – policy timers such as a periodic
+ *       priority boost, with {@link #limitSlice(int)} to cut the running slice short.</li>
+ * </ul>
+ * Setting a positive {@code quantum} time-slices every dispatch by default.
+ *
+ * Events are packed into one long: time (high 32 bits), type (2 bits), process index
+ * (30 bits). At equal times completions are handled first, then arrivals, then quantum
+ * expiries, then timers — so a newly arrived process queues ahead of the one whose slice
+ * just ended.
+ * Events made obsolete by a preemption are left in the queue and skipped when popped.
+ */
+public abstract class EventSimulator {
+
+    static final int COMPLETION = 0;
+    static final int ARRIVAL = 1;
+    static final int QUANTUM_EXPIRY = 2;
+    static final int TIMER = 3;
+
+    private static final int INDEX_BITS = 30;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+    /** Input columns (read-only for the kernel except {@link #remaining}). */
+    protected final int[] arrival;
+    protected final int[] burst;
+
+    /** CPU time still owed to each process. */
+    protected final int[] remaining;
+
+    /** Out: completion time per process index. */
+    protected final int[] completion;
+
+    /** Process indices sorted by arrival, and the inverse (arrival rank of each process). */
+    protected final int[] byArrival;
+    protected final int[] rank;
+
+    /** Out: execution segments. */
+    protected final Timeline timeline = new Timeline();
+
+    /** Time slice for every dispatch; 0 means run until completion or preemption. */
+    protected int quantum;
+
+    /** Current simulated time. */
+    protected int now;
+
+    private final LongHeap events = new LongHeap(64);
+    private int nextArrival;        // cursor into byArrival
+    private int running = -1;       // process on the CPU, or -1 when idle
+    private int runStart;           // when the running process was dispatched
+    private int runEnd;             // time of the event that will end its current slice
+
+    /**
+     * @param arrival arrival time per process
+     * @param burst   burst time per process
+     */
+    protected EventSimulator(int[] arrival, int[] burst) {
+        int n = arrival.length;
+        if (n > INDEX_MASK) {
+            throw new IllegalArgumentException("Too many processes for the event encoding: " + n);
+        }
+        this.arrival = arrival;
+        this.burst = burst;
+        this.remaining = burst.clone();
+        this.completion = new int[n];
+        this.byArrival = Permutation.sortedBy(arrival, n);
+        this.rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            rank[byArrival[r]] = r;
+        }
+    }
+
+    /** Adds a ready process to the policy's ready queue. */
+    protected abstract void enqueue(int p);
+
+    /** Removes and returns the next process to run, or -1 if none is ready. */
+    protected abstract int pollNext();
+
+    /**
+     * Decides whether a process that just arrived should preempt the running one.
+     * {@link #remainingNow(int)} gives the running process's outstanding work.
+     */
+    protected boolean shouldPreempt(int arriving, int running) {
+        return false;
+    }
+
+    /**
+     * Time slice for dispatching {@code p}; 0 means run until completion or preemption.
+     * Defaults to {@link #quantum}.
+     */
+    protected int slice(int p) {
+        return quantum;
+    }
+
+    /**
+     * Called whenever {@code p} leaves the CPU (completion, slice expiry or preemption) after
+     * running for {@code ran} time units, before it is re-enqueued.
+     */
+    protected void charge(int p, int ran) {
+    }
+
+    /** Called at the time given to {@link #scheduleTimer(int)}, before the next dispatch. */
+    protected void onTimer() {
+    }
+
+    /** Arranges one call to {@link #onTimer()} at {@code time} (not before {@link #now}). */
+    protected void scheduleTimer(int time) {
+        push(time, TIMER, 0);
+    }
+
+    /**
+     * Ends the running process's current slice by {@code end} at the latest (the slice is
+     * left alone if it already ends by then). {@code end} must be after {@link #now}.
+     */
+    protected void limitSlice(int end) {
+        if (running == -1 || end >= runEnd) return;
+        runEnd = end;
+        push(end, QUANTUM_EXPIRY, running); // the old slice-end event is now stale
+    }
+
+    /** Process on the CPU, or -1 when idle. */
+    protected int running() {
+        return running;
+    }
+
+    /** CPU time the running process still needs as of {@link #now}. */
+    protected int remainingNow(int p) {
+        return p == running ? remaining[p] - (now - runStart) : remaining[p];
+    }
+
+    /**
+     * Runs the simulation to completion. Results are in {@link #completion()} and
+     * {@link #timeline()}.
+     */
+    public void run() {
+        if (byArrival.length > 0) {
+            scheduleArrival();
+        }
+
+        while (!events.isEmpty()) {
+            long ev = events.pop();
+            now = (int) (ev >> 32);
+            int type = (int) (ev >>> INDEX_BITS) & 3;
+            int p = (int) ev & INDEX_MASK;
+
+            switch (type) {
+                case COMPLETION:
+                    // A stale completion can coincide with the end of a later slice of the same
+                    // process, so also check that the process really has no work left.
+                    if (p == running && now == runEnd && remainingNow(p) == 0) {
+                        stopRunning();
+                        completion[p] = now;
+                    }
+                    break;
+                case ARRIVAL:
+                    scheduleArrival();
+                    enqueue(p);
+                    if (running != -1 && shouldPreempt(p, running)) {
+                        int preempted = running;
+                        stopRunning();
+                        enqueue(preempted);
+                    }
+                    break;
+                case QUANTUM_EXPIRY:
+                    if (p == running && now == runEnd) {
+                        stopRunning();
+                        enqueue(p);
+                    }
+                    break;
+                case TIMER:
+                    onTimer();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event type " + type);
+            }
+
+            // Only pick the next process once every event at this instant has been seen.
+            if (running == -1 && (events.isEmpty() || (int) (events.peek() >> 32) != now)) {
+                dispatch();
+            }
+        }
+    }
+
+    /** Completion time per process index. */
+    public int[] completion() {
+        return completion;
+    }
+
+    /** Execution segments in time order. */
+    public Timeline timeline() {
+        return timeline;
+    }
+
+    private void dispatch() {
+        int p = pollNext();
+        if (p == -1) return; // CPU stays idle until the next arrival
+
+        running = p;
+        runStart = now;
+        int q = slice(p);
+        if (q > 0 && remaining[p] > q) {
+            runEnd = now + q;
+            push(runEnd, QUANTUM_EXPIRY, p);
+        } else {
+            runEnd = now + remaining[p];
+            push(runEnd, COMPLETION, p);
+        }
+    }
+
+    /** Takes the running process off the CPU, charging it for the time it ran. */
+    private void stopRunning() {
+        int p = running;
+        remaining[p] -= now - runStart;
+        timeline.add(p, runStart, now);
+        running = -1;
+        charge(p, now - runStart);
+    }
+
+    /** Queues the arrival event of the next process in arrival order, if any. */
+    private void scheduleArrival() {
+        if (nextArrival < byArrival.length) {
+            int p = byArrival[nextArrival++];
+            push(arrival[p], ARRIVAL, p);
+        }
+    }
+
+    private void push(int time, int type, int p) {
+        events.push(((long) time << 32) | ((long) type << INDEX_BITS) | p);
+    }
+}
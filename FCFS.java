@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -10,69 +8,53 @@ public class FCFS {
 
     /**
      * Runs FCFS on the given processes, prints per-process WT/TAT, a Gantt chart, and averages.
-     *
-     * Side effects:
-     * - Sorts the provided list by arrival time (stable for equal arrivals).
-     * - Prints results to stdout and calls GanttChart.display(executionOrder, timestamps).
+     * The list is not modified; see {@link #schedule(ProcessTable)}.
      */
     public static void schedule(List<Process> processes) {
-        if (processes == null || processes.isEmpty()) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Runs FCFS on a columnar process table, prints per-process WT/TAT, a Gantt chart, and averages.
+     * The table is not modified: the order is an index permutation over its columns.
+     */
+    public static void schedule(ProcessTable table) {
+        if (table.isEmpty()) {
             System.out.println("No processes to schedule.");
             return;
         }
+        ScheduleRenderer.print(run(table));
+    }
 
-        // 1) Sort by arrival time (then PID for determinism if arrivals tie).
-        processes.sort(
-            Comparator.comparingInt((Process p) -> p.arrivalTime)
-                      .thenComparingInt(p -> p.pid)
-        );
-
-        // 2) Accumulators & timeline
-        int time = 0;          // simulated current time
-        long totalWT = 0L;     // sum of waiting times
-        long totalTAT = 0L;    // sum of turnaround times
+    /**
+     * Simulates FCFS without producing any output.
+     *
+     * @param table processes to schedule (not modified, safe to share between threads once trimmed)
+     * @return per-process metrics, dispatch order and timeline
+     */
+    public static ScheduleResult run(ProcessTable table) {
+        int n = table.trim().size();
 
-        List<String> executionOrder = new ArrayList<>(); // labels for Gantt bars ("P1", "P2", ...)
-        List<Integer> timestamps    = new ArrayList<>(); // boundaries for each bar; size = order.size() + 1
-        timestamps.add(time);                             // timeline starts at t=0
+        // 1) Order by arrival time (then PID for determinism if arrivals tie) as an index permutation.
+        int[] order = Permutation.sortedBy(table.arrival, table.pid, n);
 
-        System.out.println("\nFCFS Gantt Chart:");
-        for (Process p : processes) {
+        // 2) Timeline & completion times
+        int time = 0;                                   // simulated current time
+        int[] completion = new int[n];
+        Timeline timeline = new Timeline(n);            // execution segments for the Gantt chart
 
+        for (int i : order) {
             // If CPU is idle until the next process arrives, advance time to its arrival.
-            if (time < p.arrivalTime) {
-                time = p.arrivalTime;
-                // (We don't render an explicit "IDLE" segment here to keep the original output shape.)
+            if (time < table.arrival[i]) {
+                time = table.arrival[i];
             }
 
-            // Waiting time: how long the process waited in the ready queue.
-            int waitingTime = time - p.arrivalTime;
-
-            // Turnaround time: waiting + service time.
-            int turnaroundTime = waitingTime + p.burstTime;
-
-            // Record execution for the Gantt chart.
-            executionOrder.add("P" + p.pid);
-
-            // Advance time by the burst.
-            time += p.burstTime;
-
-            // Mark the end of this slice in the timeline.
-            timestamps.add(time);
-
-            // Accumulate metrics.
-            totalWT  += waitingTime;
-            totalTAT += turnaroundTime;
-
-            // Per-process report.
-            System.out.println("P" + p.pid + " -> WT: " + waitingTime + ", TAT: " + turnaroundTime);
+            // Record execution, then advance time by the burst.
+            timeline.add(i, time, time + table.burst[i]);
+            time += table.burst[i];
+            completion[i] = time;
         }
 
-        // 3) Render Gantt chart and averages
-        GanttChart.display(executionOrder, timestamps);
-
-        int n = processes.size();
-        System.out.println("Average WT: "  + (totalWT  / (double) n));
-        System.out.println("Average TAT: " + (totalTAT / (double) n));
+        return new ScheduleResult("FCFS", table, completion, order, timeline);
     }
 }
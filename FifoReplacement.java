@@ -0,0 +1,83 @@
+/**
+ * FIFO page replacement in O(1) per reference.
+ *
+ * Frames form a ring: the frame after the newest page is the oldest one, so the victim is
+ * always the frame at the ring's head and a fault just overwrites it and advances the head.
+ * Residency is an {@link IntIntMap} from page to frame.
+ */
+public class FifoReplacement implements ReplacementPolicy {
+
+    private final int[] page;         // frame -> page
+    private final IntIntMap frameOf;  // page -> frame
+    private int head;                 // oldest frame once all frames are in use
+    private int resident;
+    private long faults;
+    private int lastEvicted = -1;
+
+    public FifoReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        page = new int[frames];
+        frameOf = new IntIntMap(frames);
+    }
+
+    @Override
+    public boolean access(int p) {
+        // The frame a fault would use is known up front, so lookup and insert are one probe
+        boolean full = resident == page.length;
+        int f = full ? head : resident;
+        if (frameOf.putIfAbsent(p, f) != -1) return false;
+
+        if (full) {
+            lastEvicted = page[f];
+            frameOf.remove(lastEvicted);
+            head = head + 1 == page.length ? 0 : head + 1;
+        } else {
+            resident++;
+            lastEvicted = -1;
+        }
+        page[f] = p;
+        faults++;
+        return true;
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        return frameOf.get(p);
+    }
+
+    @Override
+    public int frames() {
+        return page.length;
+    }
+
+    @Override
+    public int resident() {
+        return resident;
+    }
+
+    @Override
+    public int snapshot(int[] out) {
+        for (int i = 0, f = head; i < resident; i++) {
+            out[i] = page[f];
+            f = f + 1 == page.length ? 0 : f + 1;
+        }
+        return resident;
+    }
+
+    @Override
+    public String name() {
+        return "FIFO";
+    }
+}
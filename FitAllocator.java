@@ -0,0 +1,243 @@
+import java.util.Arrays;
+
+/**
+ * First-, Best- and Worst-Fit allocation with free and coalescing, in O(log n) per operation.
+ *
+ * Memory is the given blocks laid out back to back. Every region — free or allocated — is a
+ * segment node in a pool of parallel {@code int[]} columns, linked to its address neighbours
+ * so that {@link #free(int)} can coalesce with adjacent free segments of the same block in
+ * O(1). Free segments are additionally indexed by policy:
+ * <ul>
+ *   <li>First-Fit: a treap keyed by address whose subtrees track their largest free size,
+ *       so the lowest-addressed segment that fits is found in one descent;</li>
+ *   <li>Best-Fit: a treap keyed by (size, address); the fit is the ceiling of the request;</li>
+ *   <li>Worst-Fit: an indexed max-heap keyed by (size, lowest address first).</li>
+ * </ul>
+ * Ties resolve to the lowest address, i.e. the lowest block number, exactly like the
+ * linear scans in {@link MemoryManagement}; without frees the results are identical.
+ */
+public class FitAllocator implements Allocator {
+
+    /** Which free segment a request is carved from. */
+    public enum Policy {
+        FIRST("First-Fit"), BEST("Best-Fit"), WORST("Worst-Fit");
+
+        final String label;
+
+        Policy(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int NIL = -1;
+
+    private final Policy policy;
+
+    // Segment pool (node id = handle for allocated segments)
+    private int[] start;
+    private int[] size;
+    private int[] block;
+    private int[] prev;
+    private int[] next;
+    private boolean[] free;
+    private int nodes;               // high-water mark of used ids
+    private int recycled = NIL;      // head of the list of reusable ids (linked through next[])
+
+    // Free-segment index: one of these is used depending on the policy
+    private final LongTreap treap;
+    private final IndexedHeap heap;
+
+    private long freeMemory;
+
+    /**
+     * @param policy       placement policy
+     * @param memoryBlocks size of each block; block i starts where block i-1 ends
+     */
+    public FitAllocator(Policy policy, int[] memoryBlocks) {
+        this.policy = policy;
+        int cap = Math.max(16, memoryBlocks.length * 2);
+        start = new int[cap];
+        size = new int[cap];
+        block = new int[cap];
+        prev = new int[cap];
+        next = new int[cap];
+        free = new boolean[cap];
+        treap = policy == Policy.WORST ? null : new LongTreap(cap);
+        heap = policy == Policy.WORST ? new IndexedHeap(cap) : null;
+
+        int address = 0, last = NIL;
+        for (int b = 0; b < memoryBlocks.length; b++) {
+            if (memoryBlocks[b] < 0) {
+                throw new IllegalArgumentException("Negative block size: " + memoryBlocks[b]);
+            }
+            int s = newNode(address, memoryBlocks[b], b);
+            prev[s] = last;
+            if (last != NIL) next[last] = s;
+            last = s;
+            address += memoryBlocks[b];
+            if (address < 0) {
+                throw new IllegalArgumentException("Total memory exceeds the int address space");
+            }
+            if (memoryBlocks[b] > 0) index(s);
+            freeMemory += memoryBlocks[b];
+        }
+    }
+
+    @Override
+    public int allocate(int request) {
+        if (request < 0) {
+            throw new IllegalArgumentException("Negative request: " + request);
+        }
+        int f = findFit(request);
+        if (f == NIL) return -1;
+
+        unindex(f);
+        freeMemory -= request;
+        if (size[f] == request) {
+            free[f] = false;
+            return f;
+        }
+
+        // Split: the allocation takes the front of f, the remainder stays free.
+        int a = newNode(start[f], request, block[f]);
+        free[a] = false;
+        prev[a] = prev[f];
+        next[a] = f;
+        if (prev[f] != NIL) next[prev[f]] = a;
+        prev[f] = a;
+        start[f] += request;
+        size[f] -= request;
+        index(f);
+        return a;
+    }
+
+    @Override
+    public void free(int h) {
+        if (h < 0 || h >= nodes || free[h] || size[h] < 0) {
+            throw new IllegalArgumentException("Not an allocated handle: " + h);
+        }
+        free[h] = true;
+        freeMemory += size[h];
+
+        // Coalesce with free neighbours inside the same block.
+        int p = prev[h];
+        if (p != NIL && free[p] && block[p] == block[h]) {
+            unindexIfIndexed(p);
+            start[h] = start[p];
+            size[h] += size[p];
+            unlink(p);
+        }
+        int n = next[h];
+        if (n != NIL && free[n] && block[n] == block[h]) {
+            unindexIfIndexed(n);
+            size[h] += size[n];
+            unlink(n);
+        }
+        if (size[h] > 0) index(h);
+    }
+
+    @Override
+    public int blockOf(int h) {
+        return block[h];
+    }
+
+    @Override
+    public int reservedSize(int h) {
+        return size[h];
+    }
+
+    @Override
+    public long freeMemory() {
+        return freeMemory;
+    }
+
+    @Override
+    public int largestFree() {
+        if (heap != null) {
+            return heap.isEmpty() ? 0 : size[heap.peek()];
+        }
+        return Math.max(0, treap.maxValue());
+    }
+
+    @Override
+    public String name() {
+        return policy.label;
+    }
+
+    private int findFit(int request) {
+        switch (policy) {
+            case FIRST:
+                return treap.firstAtLeast(request);
+            case BEST:
+                return treap.ceiling((long) request << 32);
+            case WORST:
+                return heap.isEmpty() || size[heap.peek()] < request ? NIL : heap.peek();
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /** Adds a free segment to the policy index. */
+    private void index(int s) {
+        switch (policy) {
+            case FIRST:
+                treap.insert(s, start[s], size[s]);
+                break;
+            case BEST:
+                treap.insert(s, ((long) size[s] << 32) | start[s], size[s]);
+                break;
+            case WORST:
+                heap.insert(s, LongHeap.pack(-size[s], start[s]));
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private void unindex(int s) {
+        if (heap != null) heap.remove(s); else treap.remove(s);
+    }
+
+    /** Zero-sized free segments (fully used blocks) are never indexed. */
+    private void unindexIfIndexed(int s) {
+        if (size[s] > 0) unindex(s);
+    }
+
+    private int newNode(int address, int length, int b) {
+        int id;
+        if (recycled != NIL) {
+            id = recycled;
+            recycled = next[id];
+        } else {
+            if (nodes == start.length) grow();
+            id = nodes++;
+        }
+        start[id] = address;
+        size[id] = length;
+        block[id] = b;
+        free[id] = true;
+        prev[id] = NIL;
+        next[id] = NIL;
+        return id;
+    }
+
+    /** Removes a segment from the address list and recycles its id. */
+    private void unlink(int s) {
+        if (prev[s] != NIL) next[prev[s]] = next[s];
+        if (next[s] != NIL) prev[next[s]] = prev[s];
+        size[s] = -1;     // marks a dead id so stale handles are rejected
+        free[s] = false;
+        next[s] = recycled;
+        recycled = s;
+    }
+
+    private void grow() {
+        int cap = start.length << 1;
+        start = Arrays.copyOf(start, cap);
+        size = Arrays.copyOf(size, cap);
+        block = Arrays.copyOf(block, cap);
+        prev = Arrays.copyOf(prev, cap);
+        next = Arrays.copyOf(next, cap);
+        free = Arrays.copyOf(free, cap);
+    }
+}
@@ -24,4 +24,15 @@ public class GanttChart {
         }
         System.out.println("\n"); // Add a new line after the chart for spacing
     }
+
+    /**
+     * Prints a Gantt Chart for a run-length encoded {@link Timeline}, with explicit IDLE bars
+     * for gaps. Formatting is buffered by {@link GanttRenderer}.
+     *
+     * @param timeline execution segments produced by a scheduler
+     * @param pid      process ID per row of the scheduler's input (segment index i refers to row i)
+     */
+    public static void display(Timeline timeline, int[] pid) {
+        new GanttRenderer().print(timeline, pid, System.out);
+    }
 }
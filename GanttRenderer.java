@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Buffered Gantt chart renderer for {@link Timeline}s of any size.
+ *
+ * Everything is formatted into one reusable {@link StringBuilder} that is handed to the
+ * output in large chunks, instead of one {@code print} call per bar and per timestamp.
+ * While rendering, consecutive slices of the same pid are merged into one bar and gaps in
+ * the timeline are drawn as explicit {@code IDLE} bars.
+ *
+ * In summarised mode ({@link #summarised(int)}) only the first and last N bars are drawn,
+ * followed by a histogram of bar lengths, so the cost of rendering stays bounded however
+ * long the schedule is (apart from the linear pass that counts and buckets the bars).
+ *
+ * A renderer is not thread-safe; use one per thread.
+ */
+public class GanttRenderer {
+
+    /** Label used for gaps in the timeline. */
+    static final String IDLE = "IDLE";
+
+    /** Label for a gap when IDLE bars are hidden: it keeps the gap's boundaries on the time axis. */
+    static final String GAP = "~";
+    private static final int GAP_BAR = -2;    // pid of a hidden gap during a walk
+
+    private static final int FLUSH_AT = 1 << 16;
+    private static final int BUCKETS = 32;
+
+    // What a walk over the bars does with each bar.
+    private static final int COUNT = 0, BARS = 1, TIMES = 2, HISTOGRAM = 3;
+
+    private final StringBuilder sb = new StringBuilder(1 << 12);
+    private final long[] histogram = new long[BUCKETS];
+    private final long[] idleHistogram = new long[BUCKETS];
+    private int edge;              // bars kept at each end in summarised mode; 0 = draw everything
+    private boolean showIdle = true;
+
+    // Per-render state
+    private Appendable out;
+    private int shownFrom, shownTo; // bars [shownFrom, shownTo) are elided
+    private int bar;                // index of the current bar during a walk
+
+    /** Draws at most the first and last {@code n} bars plus a histogram (0 = full chart). */
+    public GanttRenderer summarised(int n) {
+        this.edge = Math.max(0, n);
+        return this;
+    }
+
+    /**
+     * Whether gaps are drawn as IDLE bars (default {@code true}). Hidden gaps are drawn as a
+     * narrow {@code ~} bar instead, so the time axis still shows where each gap starts and ends.
+     */
+    public GanttRenderer showIdle(boolean show) {
+        this.showIdle = show;
+        return this;
+    }
+
+    /**
+     * Renders the chart to {@code out}.
+     *
+     * @param timeline execution segments; segment indices are rows of {@code pid}
+     * @param pid      process ID per row
+     * @param out      destination (e.g. a {@code BufferedWriter} or {@code StringBuilder})
+     */
+    public void render(Timeline timeline, int[] pid, Appendable out) throws IOException {
+        this.out = out;
+        sb.setLength(0);
+
+        int bars = walk(timeline, pid, COUNT);
+        boolean summary = edge > 0 && bars > 2 * edge;
+        shownFrom = summary ? edge : bars;
+        shownTo = summary ? bars - edge : bars;
+
+        sb.append("\nGantt Chart:\n");
+        walk(timeline, pid, BARS);
+        sb.append("|\n");
+        sb.append(origin(timeline)).append("    ");
+        walk(timeline, pid, TIMES);
+        sb.append("\n\n");
+
+        if (summary) {
+            Arrays.fill(histogram, 0);
+            Arrays.fill(idleHistogram, 0);
+            walk(timeline, pid, HISTOGRAM);
+            appendHistogram(bars);
+        }
+
+        out.append(sb);
+        sb.setLength(0);
+        this.out = null;
+    }
+
+    /** Renders the chart to a print stream with a single write per buffered chunk. */
+    public void print(Timeline timeline, int[] pid, PrintStream stream) {
+        try {
+            render(timeline, pid, stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // PrintStream never throws, but Appendable says it may
+        }
+        stream.flush();
+    }
+
+    /**
+     * Walks the bars of the chart: merged same-pid runs and (optionally) IDLE gaps.
+     * Returns the number of bars.
+     */
+    private int walk(Timeline t, int[] pid, int mode) throws IOException {
+        int n = t.size();
+        int time = origin(t);
+        bar = 0;
+
+        int i = 0;
+        while (i < n) {
+            if (t.start(i) > time) {
+                emit(mode, showIdle ? -1 : GAP_BAR, time, t.start(i));
+                time = t.start(i);
+                continue;
+            }
+            int p = pid[t.index(i)];
+            int start = t.start(i);
+            int end = t.end(i++);
+            while (i < n && pid[t.index(i)] == p && t.start(i) == end) {
+                end = t.end(i++);
+            }
+            emit(mode, p, start, end);
+            time = end;
+        }
+        return bar;
+    }
+
+    /** Handles one bar ({@code p == -1} for IDLE) according to the walk mode. */
+    private void emit(int mode, int p, int start, int end) throws IOException {
+        int b = bar++;
+        switch (mode) {
+            case BARS:
+                if (b < shownFrom || b >= shownTo) {
+                    sb.append("| ");
+                    if (p == -1) sb.append(IDLE); else if (p == GAP_BAR) sb.append(GAP); else sb.append('P').append(p);
+                    sb.append(' ');
+                } else if (b == shownFrom) {
+                    sb.append("| ... ").append(shownTo - shownFrom).append(" bars ... ");
+                }
+                break;
+            case TIMES:
+                if (b < shownFrom || b >= shownTo) {
+                    sb.append(end).append("    ");
+                } else if (b == shownFrom) {
+                    sb.append("...    ");
+                }
+                break;
+            case HISTOGRAM:
+                if (p != GAP_BAR) (p == -1 ? idleHistogram : histogram)[bucket(end - start)]++;
+                break;
+            default:
+                break;
+        }
+        if (sb.length() >= FLUSH_AT) {
+            out.append(sb);
+            sb.setLength(0);
+        }
+    }
+
+    private void appendHistogram(int bars) {
+        sb.append("Bar length histogram (").append(bars).append(" bars):\n");
+        sb.append(String.format("%-16s %12s %12s%n", "Length", "Process", "Idle"));
+        for (int k = 0; k < BUCKETS; k++) {
+            if (histogram[k] == 0 && idleHistogram[k] == 0) continue;
+            long lo = 1L << k, hi = (1L << (k + 1)) - 1;
+            sb.append(String.format("%-16s %12d %12d%n", lo + "-" + hi, histogram[k], idleHistogram[k]));
+        }
+        sb.append('\n');
+    }
+
+    /** log2 bucket of a positive length. */
+    private static int bucket(int length) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(1, length));
+    }
+
+    /** Charts start at t=0 (or earlier, for traces with negative times). */
+    private static int origin(Timeline t) {
+        return t.size() > 0 ? Math.min(0, t.start(0)) : 0;
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.Arrays;
+
+/**
+ * HDR-style histogram of non-negative {@code long} values (e.g. latencies in nanoseconds).
+ *
+ * Buckets are log-linear: values below {@code 2^precisionBits} are counted exactly, and every
+ * power-of-two range above that is split into {@code 2^(precisionBits-1)} equal sub-buckets,
+ * so any recorded value is reproduced with a relative error below {@code 2^-(precisionBits-1)}
+ * over the whole {@code long} range. Recording is a couple of shifts and an array increment,
+ * with a fixed footprint and no allocation, so it is cheap enough to wrap every operation.
+ *
+ * Not thread-safe; record per thread and {@link #add(Histogram)} the results.
+ */
+public class Histogram {
+
+    private final int bits;           // precision bits
+    private final int half;           // sub-buckets per power-of-two range above the linear part
+    private final long[] counts;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    /** Histogram with about 1% relative precision. */
+    public Histogram() {
+        this(7);
+    }
+
+    /** @param precisionBits 2..16; relative error is below {@code 2^-(precisionBits-1)} */
+    public Histogram(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits must be in 2..16: " + precisionBits);
+        }
+        this.bits = precisionBits;
+        this.half = 1 << (precisionBits - 1);
+        this.counts = new long[(1 << precisionBits) + (64 - precisionBits) * half];
+    }
+
+    /** Records one value; negative values count as 0. */
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    /** Records {@code count} occurrences of a value; negative values count as 0. */
+    public void record(long value, long count) {
+        long v = Math.max(0, value);
+        counts[index(v)] += count;
+        total += count;
+        sum += (double) v * count;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /** Adds every count of {@code other}, which must have the same precision. */
+    public void add(Histogram other) {
+        if (other.bits != bits) {
+            throw new IllegalArgumentException("Precision mismatch: " + other.bits + " vs " + bits);
+        }
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long min() {
+        return total == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Smallest recorded value (to bucket precision) such that {@code percentile}% of all
+     * values are at or below it; 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, Math.max(min, highestEquivalent(i)));
+        }
+        return max;
+    }
+
+    /** One-line summary: count, mean and the usual percentiles. */
+    public String summary() {
+        return String.format("n=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                             total, mean(), valueAtPercentile(50), valueAtPercentile(90),
+                             valueAtPercentile(99), valueAtPercentile(99.9), max);
+    }
+
+    private int index(long v) {
+        int length = 64 - Long.numberOfLeadingZeros(v);
+        if (length <= bits) return (int) v;
+        int shift = length - bits;
+        int top = (int) (v >>> shift);                   // in [half, 2*half)
+        return (1 << bits) + (shift - 1) * half + (top - half);
+    }
+
+    /** Largest value that maps to bucket {@code i}. */
+    private long highestEquivalent(int i) {
+        if (i < (1 << bits)) return i;
+        int k = i - (1 << bits);
+        int shift = k / half + 1;
+        long top = k % half + half;
+        long high = ((top + 1) << shift) - 1;
+        return high < 0 ? Long.MAX_VALUE : high;
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of caller-chosen node ids ordered by {@code long} keys, with a position
+ * index so any node can be removed or re-keyed in O(log n) — which {@link LongHeap} cannot do.
+ *
+ * For max-heap behaviour, store negated keys.
+ */
+public class IndexedHeap {
+
+    private int[] heap;      // heap slot -> node id
+    private int[] pos;       // node id -> heap slot, or -1 if absent
+    private long[] key;      // node id -> key
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        int cap = Math.max(1, capacity);
+        heap = new int[cap];
+        pos = new int[cap];
+        key = new long[cap];
+        Arrays.fill(pos, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return id < pos.length && pos[id] >= 0;
+    }
+
+    /** Node with the smallest key. Heap must not be empty. */
+    public int peek() {
+        return heap[0];
+    }
+
+    /** Key of a present node. */
+    public long key(int id) {
+        return key[id];
+    }
+
+    /** Inserts a node that is not present. */
+    public void insert(int id, long k) {
+        ensureCapacity(Math.max(id + 1, size + 1));
+        key[id] = k;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    /** Removes and returns the node with the smallest key. Heap must not be empty. */
+    public int poll() {
+        int id = heap[0];
+        remove(id);
+        return id;
+    }
+
+    /** Removes a present node. */
+    public void remove(int id) {
+        int slot = pos[id];
+        int last = heap[--size];
+        pos[id] = -1;
+        if (slot == size) return;
+        heap[slot] = last;
+        pos[last] = slot;
+        siftDown(slot);
+        siftUp(pos[last]);
+    }
+
+    /** Changes the key of a present node. */
+    public void update(int id, long k) {
+        long old = key[id];
+        key[id] = k;
+        if (k < old) siftUp(pos[id]); else siftDown(pos[id]);
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        long k = key[id];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            int pid = heap[parent];
+            if (key[pid] <= k) break;
+            heap[slot] = pid;
+            pos[pid] = slot;
+            slot = parent;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        long k = key[id];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[heap[child]]) child = right;
+            if (k <= key[heap[child]]) break;
+            heap[slot] = heap[child];
+            pos[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n > pos.length) {
+            int old = pos.length;
+            int cap = Math.max(n, old << 1);
+            pos = Arrays.copyOf(pos, cap);
+            key = Arrays.copyOf(key, cap);
+            Arrays.fill(pos, old, cap, -1);
+        }
+        if (n > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(n, heap.length << 1));
+        }
+    }
+}
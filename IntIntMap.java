@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code int} keys to {@code int} values, with no boxing and
+ * no per-entry objects: keys and values live in two parallel arrays probed linearly.
+ *
+ * Removal uses backward-shift deletion, so there are no tombstones and lookups stay short
+ * however many removals a long replay performs. Every key is allowed; {@link #get(int)}
+ * reports a missing key as {@code -1} (use {@link #containsKey(int)} when -1 is a value).
+ */
+public class IntIntMap {
+
+    private static final int MISSING = -1;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int shift;                // 32 - log2(capacity)
+    private int size;
+
+    public IntIntMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new int[cap];
+        values = new int[cap];
+        used = new boolean[cap];
+        mask = cap - 1;
+        shift = Integer.numberOfLeadingZeros(cap) + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Value for {@code key}, or -1 if absent. */
+    public int get(int key) {
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return MISSING;
+    }
+
+    public boolean containsKey(int key) {
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    /** Maps {@code key} to {@code value}; returns the previous value, or -1. */
+    public int put(int key, int value) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) >> 1) rehash();
+        return MISSING;
+    }
+
+    /**
+     * Maps {@code key} to {@code value} unless it is already present; returns the existing
+     * value, or -1 if the mapping was added. One probe sequence instead of a get and a put.
+     */
+    public int putIfAbsent(int key, int value) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) >> 1) rehash();
+        return MISSING;
+    }
+
+    /** Removes {@code key}; returns its value, or -1 if it was absent. */
+    public int remove(int key) {
+        int i = slot(key);
+        while (true) {
+            if (!used[i]) return MISSING;
+            if (keys[i] == key) break;
+            i = (i + 1) & mask;
+        }
+        int old = values[i];
+        size--;
+
+        // Backward-shift: pull later entries of the probe run into the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            // Entry j may move to the hole unless its home lies cyclically in (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        used[hole] = false;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift; // Fibonacci hashing: the top bits of the product
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys, oldValues = values;
+        boolean[] oldUsed = used;
+        int cap = oldKeys.length << 1;
+        keys = new int[cap];
+        values = new int[cap];
+        used = new boolean[cap];
+        mask = cap - 1;
+        shift = Integer.numberOfLeadingZeros(cap) + 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
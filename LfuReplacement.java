@@ -0,0 +1,172 @@
+/**
+ * LFU page replacement with O(1) frequency buckets.
+ *
+ * Every resident page has a reference count. Frames with the same count form a bucket: a
+ * circular doubly-linked list through {@code int[] prev/next}, oldest first. The non-empty
+ * buckets themselves form a list sorted by count, so a hit moves the frame from bucket c to
+ * the back of the bucket right after it (creating bucket c+1 there if needed), and a fault
+ * evicts the oldest frame of the first bucket (the least recently promoted of the least
+ * frequently used pages). Both are a handful of array writes: no search, no hashing beyond
+ * the page lookup, and nothing allocated per reference. Counts are forgotten on eviction.
+ */
+public class LfuReplacement implements ReplacementPolicy {
+
+    private static final int NIL = -1;
+
+    // Frames
+    private final int[] page;            // frame -> page
+    private final int[] bucketOf;        // frame -> bucket
+    private final int[] prev;            // ring of frames within a bucket
+    private final int[] next;
+    private final IntIntMap frameOf;     // page -> frame
+
+    // Buckets (at most one per frame, plus one while a frame moves between buckets)
+    private final int[] bucketCount;
+    private final int[] bucketHead;      // oldest frame in the bucket
+    private final int[] bucketPrev;
+    private final int[] bucketNext;
+    private final int[] freeBuckets;
+    private int freeBucketCount;
+    private int first = NIL;             // bucket with the lowest count
+
+    private int resident;
+    private long faults;
+    private int lastEvicted = -1;
+
+    public LfuReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        page = new int[frames];
+        bucketOf = new int[frames];
+        prev = new int[frames];
+        next = new int[frames];
+        frameOf = new IntIntMap(frames);
+
+        int buckets = frames + 1;
+        bucketCount = new int[buckets];
+        bucketHead = new int[buckets];
+        bucketPrev = new int[buckets];
+        bucketNext = new int[buckets];
+        freeBuckets = new int[buckets];
+        for (int b = 0; b < buckets; b++) freeBuckets[b] = buckets - 1 - b;
+        freeBucketCount = buckets;
+    }
+
+    @Override
+    public boolean access(int p) {
+        int f = frameOf.get(p);
+        if (f != NIL) {
+            int b = bucketOf[f];
+            int up = bucketNext[b];
+            if (up == NIL || bucketCount[up] != bucketCount[b] + 1) {
+                up = newBucket(b, bucketCount[b] + 1);
+            }
+            unlink(f);
+            linkLast(f, up);
+            return false;
+        }
+
+        if (resident < page.length) {
+            f = resident++;
+            lastEvicted = -1;
+        } else {
+            f = bucketHead[first];
+            unlink(f);
+            lastEvicted = page[f];
+            frameOf.remove(lastEvicted);
+        }
+        page[f] = p;
+        frameOf.put(p, f);
+        linkLast(f, first != NIL && bucketCount[first] == 1 ? first : newBucket(NIL, 1));
+        faults++;
+        return true;
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        return frameOf.get(p);
+    }
+
+    @Override
+    public int frames() {
+        return page.length;
+    }
+
+    @Override
+    public int resident() {
+        return resident;
+    }
+
+    /** Resident pages in eviction order: lowest count first, oldest first within a count. */
+    @Override
+    public int snapshot(int[] out) {
+        int n = 0;
+        for (int b = first; b != NIL; b = bucketNext[b]) {
+            int f = bucketHead[b];
+            do {
+                out[n++] = page[f];
+                f = next[f];
+            } while (f != bucketHead[b]);
+        }
+        return n;
+    }
+
+    @Override
+    public String name() {
+        return "LFU";
+    }
+
+    /** New empty bucket with the given count, inserted after {@code after} (NIL: at the front). */
+    private int newBucket(int after, int count) {
+        int b = freeBuckets[--freeBucketCount];
+        bucketCount[b] = count;
+        bucketHead[b] = NIL;
+        bucketPrev[b] = after;
+        bucketNext[b] = after == NIL ? first : bucketNext[after];
+        if (bucketNext[b] != NIL) bucketPrev[bucketNext[b]] = b;
+        if (after == NIL) first = b; else bucketNext[after] = b;
+        return b;
+    }
+
+    /** Removes a frame from its bucket, dropping the bucket if it becomes empty. */
+    private void unlink(int f) {
+        int b = bucketOf[f];
+        if (next[f] != f) {
+            next[prev[f]] = next[f];
+            prev[next[f]] = prev[f];
+            if (bucketHead[b] == f) bucketHead[b] = next[f];
+            return;
+        }
+        if (bucketPrev[b] != NIL) bucketNext[bucketPrev[b]] = bucketNext[b]; else first = bucketNext[b];
+        if (bucketNext[b] != NIL) bucketPrev[bucketNext[b]] = bucketPrev[b];
+        freeBuckets[freeBucketCount++] = b;
+    }
+
+    /** Appends a frame to the back of bucket {@code b}. */
+    private void linkLast(int f, int b) {
+        bucketOf[f] = b;
+        int head = bucketHead[b];
+        if (head == NIL) {
+            bucketHead[b] = f;
+            prev[f] = f;
+            next[f] = f;
+        } else {
+            int tail = prev[head];
+            next[tail] = f;
+            prev[f] = tail;
+            next[f] = head;
+            prev[head] = f;
+        }
+    }
+}
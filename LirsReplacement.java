@@ -0,0 +1,291 @@
+import java.util.Arrays;
+
+/**
+ * LIRS (Low Inter-reference Recency Set, Jiang and Zhang) page replacement.
+ *
+ * Pages are ranked by inter-reference recency (IRR) rather than recency: pages referenced
+ * twice within a short distance are LIR and hold most frames; everything else is HIR, and
+ * only a small share of the frames ({@code max(1, frames/100)}) holds resident HIR pages. A
+ * page seen only once — such as every page of a long scan — stays HIR and is evicted first,
+ * which makes LIRS scan resistant where LRU is not.
+ *
+ * Bookkeeping follows the paper:
+ * <ul>
+ *   <li>stack S holds LIR pages and recently seen HIR pages (resident or not), most recent on
+ *       top, and is pruned so its bottom is always a LIR page;</li>
+ *   <li>list Q holds the resident HIR pages, in eviction order.</li>
+ * </ul>
+ * A HIR page found in S has a shorter IRR than the bottom LIR page, so it becomes LIR and
+ * the bottom LIR page is demoted to Q. The paper leaves the number of non-resident HIR
+ * entries in S unbounded; here it is capped at {@code frames} (the oldest non-resident entry
+ * is dropped first), so metadata stays O(frames).
+ *
+ * All lists are intrusive doubly-linked lists over one node pool ({@code int[]} links), with
+ * an {@link IntIntMap} from page to node. Every reference is amortised O(1) and allocates
+ * nothing.
+ */
+public class LirsReplacement implements ReplacementPolicy {
+
+    private static final int NIL = -1;
+    private static final int LIR = 0, HIR = 1, GHOST = 2; // GHOST: non-resident HIR page in S
+
+    private final int capacity;
+    private final int lirLimit;
+    private final int ghostLimit;
+
+    // Node pool
+    private final int[] page;
+    private final int[] state;
+    private final int[] frame;           // resident nodes only
+    private final int[] sPrev, sNext;    // stack S (bottom = head)
+    private final boolean[] inS;
+    private final int[] qPrev, qNext;    // Q for resident HIR nodes, G for ghosts (a node is in at most one)
+    private final int[] freeNodes;
+    private int freeNodeCount;
+
+    private final int[] freeFrames;
+    private int freeFrameCount;
+
+    private int sHead = NIL, sTail = NIL;
+    private int qHead = NIL, qTail = NIL;
+    private int gHead = NIL, gTail = NIL;
+    private int lirCount, hirCount, ghostCount;
+
+    private final IntIntMap nodeOf;      // page -> node
+    private long faults;
+    private int lastEvicted = -1;
+
+    /** @param frames number of frames, at least 2 (one LIR and one resident HIR frame) */
+    public LirsReplacement(int frames) {
+        if (frames < 2) {
+            throw new IllegalArgumentException("LIRS needs at least 2 frames: " + frames);
+        }
+        capacity = frames;
+        lirLimit = frames - Math.max(1, frames / 100);
+        ghostLimit = frames;
+
+        int nodes = frames + ghostLimit + 1;
+        page = new int[nodes];
+        state = new int[nodes];
+        frame = new int[nodes];
+        sPrev = new int[nodes];
+        sNext = new int[nodes];
+        inS = new boolean[nodes];
+        qPrev = new int[nodes];
+        qNext = new int[nodes];
+        freeNodes = new int[nodes];
+        for (int n = 0; n < nodes; n++) freeNodes[n] = nodes - 1 - n;
+        freeNodeCount = nodes;
+        freeFrames = new int[frames];
+        for (int f = 0; f < frames; f++) freeFrames[f] = frames - 1 - f;
+        freeFrameCount = frames;
+        nodeOf = new IntIntMap(nodes);
+    }
+
+    @Override
+    public boolean access(int p) {
+        int n = nodeOf.get(p);
+
+        if (n != NIL && state[n] == LIR) {
+            boolean bottom = n == sHead;
+            stackToTop(n);
+            if (bottom) prune();
+            return false;
+        }
+        if (n != NIL && state[n] == HIR) {
+            if (inS[n]) {
+                // Re-referenced within the LIR set's recency: promote, demote the bottom LIR page
+                qUnlink(n);
+                hirCount--;
+                state[n] = LIR;
+                lirCount++;
+                stackToTop(n);
+                demoteBottom();
+            } else {
+                stackToTop(n);
+                qUnlink(n);
+                qLinkLast(n);
+            }
+            return false;
+        }
+
+        faults++;
+        lastEvicted = -1;
+        if (n == NIL && lirCount < lirLimit) {
+            // Warm-up: the first pages fill the LIR set
+            n = newNode(p);
+            state[n] = LIR;
+            lirCount++;
+            stackToTop(n);
+            frame[n] = freeFrames[--freeFrameCount];
+            return true;
+        }
+
+        if (lirCount + hirCount == capacity) {
+            evictFront();
+        }
+        if (n != NIL) {
+            // Ghost in S: its IRR beats the bottom LIR page
+            gUnlink(n);
+            ghostCount--;
+            state[n] = LIR;
+            lirCount++;
+            stackToTop(n);
+            demoteBottom();
+        } else {
+            n = newNode(p);
+            state[n] = HIR;
+            hirCount++;
+            stackToTop(n);
+            qLinkLast(n);
+        }
+        frame[n] = freeFrames[--freeFrameCount];
+
+        while (ghostCount > ghostLimit) {
+            int g = gHead;
+            gUnlink(g);
+            ghostCount--;
+            stackUnlink(g);
+            delete(g);
+            prune();
+        }
+        return true;
+    }
+
+    /** Evicts the front of Q; it stays in S as a ghost if S still remembers it. */
+    private void evictFront() {
+        int v = qHead;
+        qUnlink(v);
+        hirCount--;
+        lastEvicted = page[v];
+        freeFrames[freeFrameCount++] = frame[v];
+        if (inS[v]) {
+            state[v] = GHOST;
+            gLinkLast(v);
+            ghostCount++;
+        } else {
+            delete(v);
+        }
+    }
+
+    /** Moves the bottom LIR page of S to the end of Q as a resident HIR page. */
+    private void demoteBottom() {
+        int b = sHead;
+        stackUnlink(b);
+        state[b] = HIR;
+        lirCount--;
+        hirCount++;
+        qLinkLast(b);
+        prune();
+    }
+
+    /** Pops HIR entries off the bottom of S so that the bottom is a LIR page again. */
+    private void prune() {
+        while (sHead != NIL && state[sHead] != LIR) {
+            int b = sHead;
+            stackUnlink(b);
+            if (state[b] == GHOST) {
+                gUnlink(b);
+                ghostCount--;
+                delete(b);
+            }
+        }
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        int n = nodeOf.get(p);
+        return n != NIL && state[n] != GHOST ? frame[n] : -1;
+    }
+
+    @Override
+    public int frames() {
+        return capacity;
+    }
+
+    @Override
+    public int resident() {
+        return lirCount + hirCount;
+    }
+
+    /** Resident pages: Q in eviction order, then LIR pages from the bottom of S up. */
+    @Override
+    public int snapshot(int[] out) {
+        int i = 0;
+        for (int n = qHead; n != NIL; n = qNext[n]) out[i++] = page[n];
+        for (int n = sHead; n != NIL; n = sNext[n]) {
+            if (state[n] == LIR) out[i++] = page[n];
+        }
+        return i;
+    }
+
+    @Override
+    public String name() {
+        return "LIRS";
+    }
+
+    private int newNode(int p) {
+        int n = freeNodes[--freeNodeCount];
+        page[n] = p;
+        inS[n] = false;
+        nodeOf.put(p, n);
+        return n;
+    }
+
+    private void delete(int n) {
+        nodeOf.remove(page[n]);
+        freeNodes[freeNodeCount++] = n;
+    }
+
+    private void stackToTop(int n) {
+        if (inS[n]) {
+            if (n == sTail) return;
+            stackUnlink(n);
+        }
+        inS[n] = true;
+        sPrev[n] = sTail;
+        sNext[n] = NIL;
+        if (sTail != NIL) sNext[sTail] = n; else sHead = n;
+        sTail = n;
+    }
+
+    private void stackUnlink(int n) {
+        if (sPrev[n] != NIL) sNext[sPrev[n]] = sNext[n]; else sHead = sNext[n];
+        if (sNext[n] != NIL) sPrev[sNext[n]] = sPrev[n]; else sTail = sPrev[n];
+        inS[n] = false;
+    }
+
+    private void qLinkLast(int n) {
+        qPrev[n] = qTail;
+        qNext[n] = NIL;
+        if (qTail != NIL) qNext[qTail] = n; else qHead = n;
+        qTail = n;
+    }
+
+    private void qUnlink(int n) {
+        if (qPrev[n] != NIL) qNext[qPrev[n]] = qNext[n]; else qHead = qNext[n];
+        if (qNext[n] != NIL) qPrev[qNext[n]] = qPrev[n]; else qTail = qPrev[n];
+    }
+
+    private void gLinkLast(int n) {
+        qPrev[n] = gTail;
+        qNext[n] = NIL;
+        if (gTail != NIL) qNext[gTail] = n; else gHead = n;
+        gTail = n;
+    }
+
+    private void gUnlink(int n) {
+        if (qPrev[n] != NIL) qNext[qPrev[n]] = qNext[n]; else gHead = qNext[n];
+        if (qNext[n] != NIL) qPrev[qNext[n]] = qPrev[n]; else gTail = qPrev[n];
+    }
+}
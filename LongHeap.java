@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive {@code long} keys.
+ *
+ * Schedulers pack their ordering key into the high 32 bits and a process index
+ * into the low 32 bits (see {@link #pack(int, int)}), so a single long comparison
+ * orders by key first and breaks ties by index. Nothing is boxed and nothing is
+ * allocated per push/pop once the backing array has grown to its working size.
+ */
+public class LongHeap {
+
+    private long[] heap;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param initialCapacity starting size of the backing array (grows on demand)
+     */
+    public LongHeap(int initialCapacity) {
+        heap = new long[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Packs an ordering key and a non-negative index into one heap entry.
+     * Entries compare by {@code key} first, then by {@code index}.
+     */
+    public static long pack(int key, int index) {
+        return ((long) key << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    /** Extracts the index (low 32 bits) of a packed entry. */
+    public static int index(long entry) {
+        return (int) entry;
+    }
+
+    /** Extracts the ordering key (high 32 bits) of a packed entry. */
+    public static int key(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Removes every entry but keeps the backing array. */
+    public void clear() {
+        size = 0;
+    }
+
+    /** Returns the smallest entry without removing it. Heap must not be empty. */
+    public long peek() {
+        return heap[0];
+    }
+
+    /** Inserts an entry in O(log n). */
+    public void push(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length << 1);
+        }
+        // sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long p = heap[parent];
+            if (p <= value) break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    /** Removes and returns the smallest entry in O(log n). Heap must not be empty. */
+    public long pop() {
+        long top = heap[0];
+        long last = heap[--size];
+        if (size > 0) {
+            // sift the former last element down from the root
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                long c = heap[child];
+                int right = child + 1;
+                if (right < size && heap[right] < c) {
+                    child = right;
+                    c = heap[child];
+                }
+                if (last <= c) break;
+                heap[i] = c;
+                i = child;
+            }
+            heap[i] = last;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,199 @@
+import java.util.Arrays;
+
+/**
+ * An ordered set of nodes keyed by unique {@code long} keys, each carrying an {@code int}
+ * value, with every subtree tracking the maximum value below it.
+ *
+ * Node ids are chosen by the caller (e.g. the ids of an allocator's segment pool), so
+ * there is no per-node object: keys, values and links live in parallel primitive arrays.
+ * Besides ordered lookups ({@link #ceiling(long)}, {@link #last()}), the subtree maximum
+ * answers "leftmost node whose value is at least v" in O(log n) — which is first-fit
+ * when keys are addresses and values are free sizes.
+ *
+ * Balanced as a treap (random heap priorities), so every operation is O(log n) expected.
+ */
+public class LongTreap {
+
+    private static final int NIL = -1;
+
+    private long[] key;
+    private int[] value;
+    private int[] max;
+    private int[] left;
+    private int[] right;
+    private int[] priority;
+    private int root = NIL;
+    private int size;
+    private int seed = 0x2545F491;
+
+    public LongTreap(int capacity) {
+        int cap = Math.max(1, capacity);
+        key = new long[cap];
+        value = new int[cap];
+        max = new int[cap];
+        left = new int[cap];
+        right = new int[cap];
+        priority = new int[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Inserts node {@code id}; its key must not already be present. */
+    public void insert(int id, long k, int v) {
+        ensureCapacity(id + 1);
+        key[id] = k;
+        value[id] = v;
+        max[id] = v;
+        left[id] = NIL;
+        right[id] = NIL;
+        seed ^= seed << 13; seed ^= seed >>> 17; seed ^= seed << 5; // xorshift
+        priority[id] = seed;
+        root = insert(root, id);
+        size++;
+    }
+
+    /** Removes node {@code id}, which must be present. */
+    public void remove(int id) {
+        root = remove(root, key[id]);
+        size--;
+    }
+
+    /** Key of a present node. */
+    public long key(int id) {
+        return key[id];
+    }
+
+    /** Value of a present node. */
+    public int value(int id) {
+        return value[id];
+    }
+
+    /** Node with the smallest key {@code >= k}, or -1. */
+    public int ceiling(long k) {
+        int best = NIL;
+        for (int t = root; t != NIL; ) {
+            if (key[t] >= k) {
+                best = t;
+                t = left[t];
+            } else {
+                t = right[t];
+            }
+        }
+        return best;
+    }
+
+    /** Node with the largest key, or -1 if empty. */
+    public int last() {
+        int t = root;
+        if (t == NIL) return NIL;
+        while (right[t] != NIL) t = right[t];
+        return t;
+    }
+
+    /** Node with the smallest key whose value is {@code >= v}, or -1. */
+    public int firstAtLeast(int v) {
+        int t = root;
+        if (t == NIL || max[t] < v) return NIL;
+        while (true) {
+            if (left[t] != NIL && max[left[t]] >= v) {
+                t = left[t];
+            } else if (value[t] >= v) {
+                return t;
+            } else {
+                t = right[t]; // must exist: max[t] >= v and neither left nor t qualifies
+            }
+        }
+    }
+
+    /** Largest value in the set, or -1 if empty. */
+    public int maxValue() {
+        return root == NIL ? -1 : max[root];
+    }
+
+    private int insert(int t, int id) {
+        if (t == NIL) return id;
+        if (priority[id] > priority[t]) {
+            // id becomes the root of this subtree: split t around id's key
+            split(t, key[id]);
+            left[id] = splitLeft;
+            right[id] = splitRight;
+            update(id);
+            return id;
+        }
+        if (key[id] < key[t]) {
+            left[t] = insert(left[t], id);
+        } else {
+            right[t] = insert(right[t], id);
+        }
+        update(t);
+        return t;
+    }
+
+    private int remove(int t, long k) {
+        if (key[t] == k) {
+            return merge(left[t], right[t]);
+        }
+        if (k < key[t]) {
+            left[t] = remove(left[t], k);
+        } else {
+            right[t] = remove(right[t], k);
+        }
+        update(t);
+        return t;
+    }
+
+    // Outputs of split(): subtrees with keys < k and keys >= k.
+    private int splitLeft, splitRight;
+
+    private void split(int t, long k) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (key[t] < k) {
+            split(right[t], k);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], k);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private void update(int t) {
+        int m = value[t];
+        if (left[t] != NIL && max[left[t]] > m) m = max[left[t]];
+        if (right[t] != NIL && max[right[t]] > m) m = max[right[t]];
+        max[t] = m;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= key.length) return;
+        int cap = Math.max(n, key.length << 1);
+        key = Arrays.copyOf(key, cap);
+        value = Arrays.copyOf(value, cap);
+        max = Arrays.copyOf(max, cap);
+        left = Arrays.copyOf(left, cap);
+        right = Arrays.copyOf(right, cap);
+        priority = Arrays.copyOf(priority, cap);
+    }
+}
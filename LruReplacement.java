@@ -0,0 +1,114 @@
+import java.util.Arrays;
+
+/**
+ * LRU page replacement in O(1) per reference.
+ *
+ * Frames are nodes of an intrusive doubly-linked recency list threaded through
+ * {@code int[] prev/next} (least recently used at the head, most recently used at the tail),
+ * and an {@link IntIntMap} maps each resident page to its frame. A hit unlinks the frame and
+ * relinks it at the tail; a fault reuses the head frame. Nothing is allocated per reference.
+ */
+public class LruReplacement implements ReplacementPolicy {
+
+    private static final int NIL = -1;
+
+    private final int[] page;         // frame -> page
+    private final int[] prev;
+    private final int[] next;
+    private final IntIntMap frameOf;  // page -> frame
+    private int head = NIL;           // least recently used
+    private int tail = NIL;           // most recently used
+    private int resident;
+    private long faults;
+    private int lastEvicted = -1;
+
+    public LruReplacement(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        page = new int[frames];
+        prev = new int[frames];
+        next = new int[frames];
+        Arrays.fill(prev, NIL);
+        Arrays.fill(next, NIL);
+        frameOf = new IntIntMap(frames);
+    }
+
+    @Override
+    public boolean access(int p) {
+        // Repeated reference to the most recent page: nothing moves
+        if (tail != NIL && page[tail] == p) return false;
+
+        // The frame a fault would use is known up front, so lookup and insert are one probe
+        boolean full = resident == page.length;
+        int f = full ? head : resident;
+        int hit = frameOf.putIfAbsent(p, f);
+        if (hit != NIL) {
+            unlink(hit);
+            linkLast(hit);
+            return false;
+        }
+
+        if (full) {
+            lastEvicted = page[f];
+            frameOf.remove(lastEvicted);
+            unlink(f);
+        } else {
+            resident++;
+            lastEvicted = -1;
+        }
+        page[f] = p;
+        linkLast(f);
+        faults++;
+        return true;
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        return frameOf.get(p);
+    }
+
+    @Override
+    public int frames() {
+        return page.length;
+    }
+
+    @Override
+    public int resident() {
+        return resident;
+    }
+
+    @Override
+    public int snapshot(int[] out) {
+        int i = 0;
+        for (int f = head; f != NIL; f = next[f]) out[i++] = page[f];
+        return i;
+    }
+
+    @Override
+    public String name() {
+        return "LRU";
+    }
+
+    private void unlink(int f) {
+        if (prev[f] != NIL) next[prev[f]] = next[f]; else head = next[f];
+        if (next[f] != NIL) prev[next[f]] = prev[f]; else tail = prev[f];
+    }
+
+    private void linkLast(int f) {
+        prev[f] = tail;
+        next[f] = NIL;
+        if (tail != NIL) next[tail] = f; else head = f;
+        tail = f;
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multilevel Feedback Queue scheduling.
+ * - There are L levels, each with its own time allotment (quantum); level 0 is the highest.
+ * - New processes enter level 0. The highest non-empty level runs, round robin within the level.
+ * - A process that has used up its level's allotment — in one slice or across several, so
+ *   yielding just before the quantum ends does not help — moves down one level (the last
+ *   level keeps it).
+ * - An arrival at a higher level preempts a running process at a lower level.
+ * - Every {@code boostPeriod} time units all processes move back to level 0.
+ *
+ * Built on the {@link EventSimulator} kernel. The levels are FIFO lists linked through one
+ * {@code int[]} of next pointers, so the whole ready structure is O(n + L) and a boost splices
+ * every lower list onto level 0 in O(L); the processes it moved learn their new level (and get
+ * a fresh allotment) when they are next dispatched, by comparing their boost epoch. Boost
+ * timers are only armed while there is work, so idle gaps in the trace cost no events. A process
+ * running at a boost keeps the CPU for at most a level-0 allotment from then on.
+ */
+public class MLFQ extends EventSimulator {
+
+    private static final int NIL = -1;
+
+    /** Default configuration for the demos: three levels, quanta 2/4/8, boost every 50. */
+    static final int[] DEFAULT_QUANTA = { 2, 4, 8 };
+    static final int DEFAULT_BOOST = 50;
+
+    private final int[] quanta;       // allotment per level; 0 = unlimited
+    private final int boostPeriod;    // 0 = never boost
+
+    private final int[] head;         // per level
+    private final int[] tail;
+    private final int[] next;         // per process
+    private final int[] level;        // per process: level it was last queued or dispatched at
+    private final int[] used;         // per process: allotment used at its current level
+    private final int[] epoch;        // per process: boosts seen when its level was last set
+    private int boosts;
+    private int queued;
+    private boolean timerArmed;
+
+    MLFQ(int[] arrival, int[] burst, int[] quanta, int boostPeriod) {
+        super(arrival, burst);
+        if (quanta.length == 0) {
+            throw new IllegalArgumentException("MLFQ needs at least one level");
+        }
+        for (int q : quanta) {
+            if (q < 0) throw new IllegalArgumentException("Negative quantum: " + q);
+        }
+        if (boostPeriod < 0) {
+            throw new IllegalArgumentException("Negative boost period: " + boostPeriod);
+        }
+        int n = arrival.length;
+        this.quanta = quanta.clone();
+        this.boostPeriod = boostPeriod;
+        head = new int[quanta.length];
+        tail = new int[quanta.length];
+        Arrays.fill(head, NIL);
+        Arrays.fill(tail, NIL);
+        next = new int[n];
+        level = new int[n];
+        used = new int[n];
+        epoch = new int[n];
+    }
+
+    @Override
+    protected void enqueue(int p) {
+        int l = level[p];
+        next[p] = NIL;
+        if (tail[l] == NIL) head[l] = p; else next[tail[l]] = p;
+        tail[l] = p;
+        queued++;
+        if (boostPeriod > 0 && !timerArmed) {
+            timerArmed = true;
+            scheduleTimer((now / boostPeriod + 1) * boostPeriod);
+        }
+    }
+
+    @Override
+    protected int pollNext() {
+        for (int l = 0; l < head.length; l++) {
+            int p = head[l];
+            if (p == NIL) continue;
+            head[l] = next[p];
+            if (head[l] == NIL) tail[l] = NIL;
+            queued--;
+            if (epoch[p] != boosts) {
+                epoch[p] = boosts;
+                used[p] = 0;
+            }
+            level[p] = l;
+            return p;
+        }
+        return -1;
+    }
+
+    @Override
+    protected boolean shouldPreempt(int arriving, int running) {
+        return level[arriving] < level[running];
+    }
+
+    @Override
+    protected int slice(int p) {
+        int q = quanta[level[p]];
+        return q == 0 ? 0 : q - used[p];
+    }
+
+    @Override
+    protected void charge(int p, int ran) {
+        used[p] += ran;
+        int q = quanta[level[p]];
+        if (q > 0 && used[p] >= q) {
+            level[p] = Math.min(level[p] + 1, quanta.length - 1);
+            used[p] = 0;
+        }
+    }
+
+    @Override
+    protected void onTimer() {
+        boosts++;
+        for (int l = 1; l < head.length; l++) {
+            if (head[l] == NIL) continue;
+            if (tail[0] == NIL) head[0] = head[l]; else next[tail[0]] = head[l];
+            tail[0] = tail[l];
+            head[l] = tail[l] = NIL;
+        }
+        int r = running();
+        if (r != -1) {
+            // Fresh level-0 allotment from now on: cancel the part of this slice already run,
+            // and end the slice when that allotment is used up.
+            level[r] = 0;
+            epoch[r] = boosts;
+            used[r] = remainingNow(r) - remaining[r];
+            if (quanta[0] > 0) limitSlice(now + quanta[0]);
+        }
+        // Keep the timer running only while something is queued or on the CPU.
+        timerArmed = queued > 0 || running() != -1;
+        if (timerArmed) {
+            scheduleTimer(now + boostPeriod);
+        }
+    }
+
+    /**
+     * Runs MLFQ with the default levels over a list; see {@link #schedule(ProcessTable)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     */
+    public static void schedule(List<Process> processes) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Runs MLFQ with three levels (quanta 2, 4, 8) and a boost every 50 time units, and prints
+     * the same report as the other schedulers.
+     *
+     * @param table processes to schedule (not modified)
+     */
+    public static void schedule(ProcessTable table) {
+        if (table.isEmpty()) {
+            System.out.println("\nMLFQ: No processes to schedule.");
+            return;
+        }
+        ScheduleRenderer.print(run(table, DEFAULT_QUANTA, DEFAULT_BOOST));
+    }
+
+    /**
+     * Simulates MLFQ without producing any output.
+     *
+     * @param table       processes to schedule (not modified, safe to share between threads once trimmed)
+     * @param quanta      allotment per level, highest level first; 0 means unlimited (FCFS level)
+     * @param boostPeriod time between priority boosts; 0 disables boosting
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult run(ProcessTable table, int[] quanta, int boostPeriod) {
+        table.trim();
+        MLFQ sim = new MLFQ(table.arrival, table.burst, quanta, boostPeriod);
+        sim.run();
+        return new ScheduleResult("MLFQ (Quanta = " + Arrays.toString(quanta) + ", Boost = " + boostPeriod + ")",
+                                  table, sim.completion(), null, sim.timeline());
+    }
+}
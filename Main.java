@@ -1,38 +1,79 @@
-import java.util.List;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Entry point for the scheduling simulator.
- * Runs CPU schedulers (FCFS, SJF, RR, Priority), memory allocation (First/Best/Worst Fit),
- * and page replacement (FIFO, LRU) using the same input set.
+ * Runs CPU schedulers (FCFS, SJF, RR, Priority, plus preemptive SRTF/Priority, MLFQ, CFS and a multi-core run), memory allocation (First/Best/Worst Fit, Buddy, Slab),
+ * and page replacement (FIFO, LRU, plus a comparison of OPT/Clock/LFU/ARC/LIRS) using the same input set,
+ * then all three together in a {@link SystemSimulator} co-simulation.
  */
 public class Main {
 
     /**
      * Orchestrates reading input, running algorithms, and printing results.
      *
-     * @param args unused
+     * @param args none for the demos, {@code --alloc-trace trace.txt [options]} to replay an
+     *             allocation trace against every memory strategy (see {@link AllocationTrace}),
+     *             or {@code --online [options] [trace.txt | -]} to schedule a live feed of
+     *             processes from a file or stdin (see {@link OnlineScheduler})
+     * @throws IOException if the process file (or the trace) cannot be read
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
-        // 1) Load processes from file
-        List<Process> processes = ProcessScheduler.readProcesses("processes.txt");
+        if (args.length > 0 && args[0].equals("--alloc-trace")) {
+            AllocationTrace.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--online")) {
+            OnlineScheduler.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // 1) Load processes from file into a columnar table (schedulers never modify it, so no copies)
+        ProcessTable table = ProcessScheduler.loadTable("processes.txt");
 
         // 2) FCFS
         System.out.println("\nFirst-Come, First-Served (FCFS)");
-        FCFS.schedule(new ArrayList<>(processes)); // pass a copy to avoid mutating original list
+        FCFS.schedule(table);
 
         // 3) SJF
         System.out.println("\nShortest Job First (SJF)");
-        SJF.schedule(new ArrayList<>(processes));
+        SJF.schedule(table);
 
         // 4) Round Robin (quantum = 2)
         System.out.println("\nRound Robin (Quantum = 2)");
-        RoundRobin.schedule(new ArrayList<>(processes), 2);
+        RoundRobin.schedule(table, 2);
+
+        System.out.println("\nRound Robin by Arrival (Quantum = 2)");
+        RoundRobin.scheduleByArrival(table, 2);
 
         // 5) Priority (non-preemptive)
         System.out.println("\nPriority Scheduling");
-        PriorityScheduling.schedule(new ArrayList<>(processes));
+        PriorityScheduling.schedule(table);
+
+        // 5b) Preemptive variants (event-driven)
+        System.out.println("\nShortest Remaining Time First (SRTF)");
+        SRTF.schedule(table);
+
+        System.out.println("\nPreemptive Priority Scheduling");
+        PriorityScheduling.schedulePreemptive(table);
+
+        // 5c) Production-style schedulers (event-driven)
+        System.out.println("\nMultilevel Feedback Queue (MLFQ)");
+        MLFQ.schedule(table);
+
+        System.out.println("\nCompletely Fair Scheduler (CFS)");
+        CFS.schedule(table);
+
+        // 5d) Multi-core: Round Robin on two cores with work stealing
+        System.out.println("\nMulti-Core Round Robin (2 cores, work stealing)");
+        MultiCoreScheduler.print(MultiCoreScheduler.run(table, 2, MultiCoreScheduler.Policy.ROUND_ROBIN, 2,
+                                                        MultiCoreScheduler.Balancer.WORK_STEALING,
+                                                        ForkJoinPool.commonPool()));
+
+        // 5e) Response-time percentiles, context switches and utilization per window
+        System.out.print(SchedulerMetrics.of(table, RoundRobin.runByArrival(table, 2), 5).report(10));
 
          // 6) Memory allocation demos
         int[] memoryBlocks = {100, 500, 200, 300, 600}; // KB
@@ -41,6 +82,8 @@ public class Main {
         MemoryManagement.firstFit(memoryBlocks.clone(), processSizes); // clone to preserve original blocks
         MemoryManagement.bestFit(memoryBlocks.clone(), processSizes);
         MemoryManagement.worstFit(memoryBlocks.clone(), processSizes);
+        MemoryManagement.buddy(memoryBlocks, processSizes);
+        MemoryManagement.slab(memoryBlocks, processSizes, 128, 512);
 
         // 7) Page replacement demos
         int[] pages  = {1, 3, 0, 3, 5, 6, 3};
@@ -48,5 +91,13 @@ public class Main {
 
         PageReplacement.fifo(pages, frames);
         PageReplacement.lru(pages, frames);
+        PageReplacement.compare(pages, frames);
+
+        // 8) All three together: allocator admission, a shared frame pool, fault and switch costs
+        System.out.println("\nCPU + Memory + Paging Co-Simulation (Round Robin, LRU, 12 frames of 16 KB)");
+        SystemSimulator system = new SystemSimulator().frames(12, LruReplacement::new).paging(16, 4, 4).costs(1, 1);
+        System.out.print(system.compare(table, SystemSimulator.footprints(table.size(), processSizes),
+                                        new String[] { "first", "best", "slab" }, memoryBlocks, new int[] { 1, 2, 4, 8 },
+                                        false));
     }
 }
@@ -1,38 +1,24 @@
-import java.util.*;
-
 /**
  * Implements three classic contiguous memory allocation strategies:
  * 1) First-Fit   – take the first block that fits
  * 2) Best-Fit    – take the smallest block that fits
  * 3) Worst-Fit   – take the largest block that fits
+ * and two kernel-style ones:
+ * 4) Buddy       – power-of-two blocks, split on allocation and merged on free
+ * 5) Slab        – fixed-size object classes carved from larger slabs
+ *
+ * The searches are done by {@link FitAllocator}, which indexes free space so each request
+ * costs O(log n) instead of a scan over every block, and which also supports freeing.
+ * Every strategy runs through {@link AllocationDriver}, so all of them print the same table.
  */
 public class MemoryManagement {
 
     /**
-     * First-Fit: scan blocks from left to right, assign the first large-enough block.
+     * First-Fit: assign the first (lowest-numbered) large-enough block.
      */
     public static void firstFit(int[] memoryBlocks, int[] processSizes) {
         System.out.println("\nFirst-Fit Memory Allocation:");
-
-        int[] allocatedBlocks = new int[processSizes.length];
-        Arrays.fill(allocatedBlocks, -1);
-
-        for (int i = 0; i < processSizes.length; i++) {
-            // find first block j where memoryBlocks[j] >= processSizes[i]
-            int chosen = -1;
-            for (int j = 0; j < memoryBlocks.length; j++) {
-                if (memoryBlocks[j] >= processSizes[i]) {
-                    chosen = j;
-                    break; // first fit ⇒ stop at the first match
-                }
-            }
-            if (chosen != -1) {
-                allocatedBlocks[i] = chosen;
-                memoryBlocks[chosen] -= processSizes[i]; // consume capacity
-            }
-        }
-
-        printAllocation(processSizes, allocatedBlocks);
+        allocate(FitAllocator.Policy.FIRST, memoryBlocks, processSizes);
     }
 
     /**
@@ -40,29 +26,7 @@ public class MemoryManagement {
      */
     public static void bestFit(int[] memoryBlocks, int[] processSizes) {
         System.out.println("\nBest-Fit Memory Allocation:");
-
-        int[] allocatedBlocks = new int[processSizes.length];
-        Arrays.fill(allocatedBlocks, -1);
-
-        for (int i = 0; i < processSizes.length; i++) {
-            int bestIdx = -1;
-
-            // track the smallest feasible block
-            for (int j = 0; j < memoryBlocks.length; j++) {
-                if (memoryBlocks[j] >= processSizes[i]) {
-                    if (bestIdx == -1 || memoryBlocks[j] < memoryBlocks[bestIdx]) {
-                        bestIdx = j;
-                    }
-                }
-            }
-
-            if (bestIdx != -1) {
-                allocatedBlocks[i] = bestIdx;
-                memoryBlocks[bestIdx] -= processSizes[i];
-            }
-        }
-
-        printAllocation(processSizes, allocatedBlocks);
+        allocate(FitAllocator.Policy.BEST, memoryBlocks, processSizes);
     }
 
     /**
@@ -70,36 +34,52 @@ public class MemoryManagement {
      */
     public static void worstFit(int[] memoryBlocks, int[] processSizes) {
         System.out.println("\nWorst-Fit Memory Allocation:");
+        allocate(FitAllocator.Policy.WORST, memoryBlocks, processSizes);
+    }
 
-        int[] allocatedBlocks = new int[processSizes.length];
-        Arrays.fill(allocatedBlocks, -1);
+    /**
+     * Buddy system: requests are rounded up to a power of two (in units of 1) and carved from
+     * aligned power-of-two chunks of the blocks. Prints the table and fragmentation.
+     */
+    public static void buddy(int[] memoryBlocks, int[] processSizes) {
+        System.out.println("\nBuddy System Memory Allocation:");
+        AllocationDriver.print(AllocationDriver.run(new BuddyAllocator(memoryBlocks, 1), processSizes));
+    }
 
-        for (int i = 0; i < processSizes.length; i++) {
-            int worstIdx = -1;
+    /**
+     * Slab allocation: requests up to {@code maxClass} come from power-of-two object classes
+     * in slabs of {@code slabSize}; slabs and larger requests are placed Best-Fit.
+     * Prints the table and fragmentation.
+     */
+    public static void slab(int[] memoryBlocks, int[] processSizes, int maxClass, int slabSize) {
+        System.out.println("\nSlab Memory Allocation:");
+        Allocator allocator = new SlabAllocator(new FitAllocator(FitAllocator.Policy.BEST, memoryBlocks),
+                                                8, maxClass, slabSize);
+        AllocationDriver.print(AllocationDriver.run(allocator, processSizes));
+    }
 
-            // track the largest feasible block
-            for (int j = 0; j < memoryBlocks.length; j++) {
-                if (memoryBlocks[j] >= processSizes[i]) {
-                    if (worstIdx == -1 || memoryBlocks[j] > memoryBlocks[worstIdx]) {
-                        worstIdx = j;
-                    }
-                }
-            }
+    /**
+     * Places every request with the given policy and prints the allocation table.
+     * As before, {@code memoryBlocks[j]} is reduced by the size of each request placed in block j.
+     */
+    private static void allocate(FitAllocator.Policy policy, int[] memoryBlocks, int[] processSizes) {
+        AllocationDriver.Report report =
+            AllocationDriver.run(new FitAllocator(policy, memoryBlocks), processSizes);
 
-            if (worstIdx != -1) {
-                allocatedBlocks[i] = worstIdx;
-                memoryBlocks[worstIdx] -= processSizes[i];
+        for (int i = 0; i < processSizes.length; i++) {
+            if (report.allocatedBlocks[i] != -1) {
+                memoryBlocks[report.allocatedBlocks[i]] -= processSizes[i]; // consume capacity
             }
         }
 
-        printAllocation(processSizes, allocatedBlocks);
+        printAllocation(processSizes, report.allocatedBlocks);
     }
 
     /**
      * Prints exactly the same table shape and wording as your original:
      *   Process No. | Process Size | Block No. (or "Not Allocated")
      */
-    private static void printAllocation(int[] processSizes, int[] allocatedBlocks) {
+    static void printAllocation(int[] processSizes, int[] allocatedBlocks) {
         System.out.println("Process No.\tProcess Size\tBlock No.");
         for (int i = 0; i < processSizes.length; i++) {
             System.out.println(
@@ -0,0 +1,320 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * LRU miss-ratio curve for every frame count at once, from a single pass over the references.
+ *
+ * LRU has the inclusion property: a reference hits with {@code c} frames exactly when its
+ * stack distance (the number of distinct pages referenced since the previous reference to
+ * the same page, itself included) is at most {@code c}. So one pass that histograms stack
+ * distances gives the fault count for every {@code c} (Mattson et al.).
+ *
+ * Distances are computed with a Fenwick tree over reference times holding a 1 at the latest
+ * reference of every page: the distance is the number of marks after the page's previous
+ * reference, found with one prefix query, and moving the page's mark costs two updates, so
+ * the whole pass is O(N log M) for M distinct pages. Only the order of the marks matters, so
+ * when the times run past the end of the tree the marks are renumbered 1..M and the tree is
+ * rebuilt (see {@link #compact()}); it doubles only when the marks themselves fill half of it.
+ * Memory is therefore O(M) however many references are streamed in with {@link #access(int)}.
+ *
+ * For very long reference strings, {@link #sampled(double)} builds a SHARDS-style estimator
+ * (Waldspurger et al.): only pages whose hash falls below a threshold are tracked, a sampled
+ * distance {@code d} stands for {@code (d - 1) / rate + 1} distinct pages, and miss ratios
+ * are normalised by the expected rather than the actual number of sampled references
+ * (SHARDS-adj), which removes most of the bias when a very hot page happens to be sampled
+ * or not. Time then scales with the sampled references and memory with the sampled pages.
+ *
+ * Usage (packed {@code .bin} reference file, see {@link ReferenceTrace}, or whitespace-separated text):
+ * <pre>
+ * java MissRatioCurve pages.bin|pages.txt [--rate 0.01] [--max frames] [--points 64]
+ * java -Xmx256m MissRatioCurve --verify [--references 100000000] [--pages 1000] [--seed 42]
+ * </pre>
+ * {@code --verify} needs no trace file: it runs the checks of {@link #verify} on random
+ * references and exits with status 1 on a failure.
+ */
+public class MissRatioCurve {
+
+    private static final int HASH_BITS = 24;
+
+    private final int threshold;          // sample pages with hash < threshold (of 2^HASH_BITS)
+    private final double rate;
+
+    private final IntIntMap last = new IntIntMap(1 << 10);  // page -> time of latest reference
+    private int[] tree = new int[1 << 10];                   // Fenwick tree over times 1..tree.length-1
+    private int[] pageAt = new int[1 << 10];                 // page referenced at each time
+    private int time;                                         // latest time handed out
+    private int marks;                                        // distinct sampled pages
+
+    private long[] histogram = new long[64];  // histogram[d]: sampled references at distance d
+    private int maxDistance;
+    private long cold;                        // sampled first references
+    private long references;                  // all references, sampled or not
+
+    /** Exact curve: every reference is tracked. */
+    public MissRatioCurve() {
+        this(1.0);
+    }
+
+    private MissRatioCurve(double rate) {
+        if (!(rate > 0 && rate <= 1)) {
+            throw new IllegalArgumentException("Sampling rate must be in (0, 1]: " + rate);
+        }
+        this.rate = rate;
+        this.threshold = (int) Math.max(1, Math.round(rate * (1 << HASH_BITS)));
+    }
+
+    /** Approximate curve tracking a {@code rate} fraction of the pages (SHARDS, fixed rate). */
+    public static MissRatioCurve sampled(double rate) {
+        return new MissRatioCurve(rate);
+    }
+
+    /** Feeds one reference. */
+    public void access(int page) {
+        references++;
+        if (threshold < (1 << HASH_BITS) && (hash(page) & ((1 << HASH_BITS) - 1)) >= threshold) return;
+
+        if (time + 1 == tree.length) compact();
+        int now = ++time;
+        pageAt[now] = page;
+        int previous = last.put(page, now);
+        if (previous == -1) {
+            cold++;
+            marks++;
+        } else {
+            int distance = marks - prefix(previous) + 1; // pages referenced after `previous`, plus this one
+            if (distance >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(distance + 1, histogram.length << 1));
+            }
+            histogram[distance]++;
+            if (distance > maxDistance) maxDistance = distance;
+            add(previous, -1);
+        }
+        add(now, 1);
+    }
+
+    /** Feeds every reference of {@code pages}. */
+    public void accessAll(int[] pages) {
+        for (int page : pages) access(page);
+    }
+
+    /** Feeds a chunked trace; memory grows with its distinct pages, not its length. */
+    public void accessAll(ReferenceTrace trace) throws IOException {
+        int[] chunk = new int[ReferenceTrace.CHUNK];
+        int n;
+        while ((n = trace.read(chunk)) > 0) {
+            for (int i = 0; i < n; i++) access(chunk[i]);
+        }
+    }
+
+    /** References seen, including those not sampled. */
+    public long references() {
+        return references;
+    }
+
+    /** Frame count beyond which the curve is flat (only compulsory misses remain). */
+    public int maxFrames() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(Math.max(0, maxDistance - 1) / rate + 1));
+    }
+
+    /**
+     * Miss ratio with {@code frames} frames. Exact for an unsampled curve; otherwise the
+     * sampled miss ratio at {@code frames * rate} sampled frames.
+     */
+    public double missRatio(int frames) {
+        if (references == 0) return 0;
+        if (rate == 1) return (double) misses(frames) / references;
+        // SHARDS-adj: a hot page being in or out of the sample skews the sampled reference count;
+        // the shortfall against the expected count is credited as hits at the smallest distance.
+        double sampledFrames = (frames - 1) * rate + 1;
+        return Math.min(1, misses(sampledFrames) / (references * rate));
+    }
+
+    /** LRU faults with {@code frames} frames (estimated when sampled). */
+    public long faults(int frames) {
+        if (rate == 1) return misses(frames);
+        return Math.round(missRatio(frames) * references);
+    }
+
+    /**
+     * Faults for every frame count {@code 0..maxFrames} of an exact curve in one suffix sum;
+     * for a sampled curve, the estimates of {@link #faults(int)}.
+     */
+    public long[] faultsUpTo(int maxFrames) {
+        long[] faults = new long[maxFrames + 1];
+        if (rate != 1) {
+            for (int c = 0; c <= maxFrames; c++) faults[c] = faults(c);
+            return faults;
+        }
+        long beyond = cold;
+        for (int d = maxDistance; d > maxFrames; d--) beyond += histogram[d];
+        for (int c = maxFrames; c >= 0; c--) {
+            faults[c] = beyond;
+            if (c <= maxDistance) beyond += histogram[c];
+        }
+        return faults;
+    }
+
+    /**
+     * Prints the curve as CSV ({@code frames,faults,miss_ratio}) at about {@code points}
+     * frame counts spread evenly over {@code 1..maxFrames}.
+     */
+    public void print(int maxFrames, int points, PrintStream out) {
+        StringBuilder sb = new StringBuilder("frames,faults,miss_ratio\n");
+        int step = Math.max(1, maxFrames / Math.max(1, points));
+        for (int c = step; ; c = Math.min(maxFrames, c + step)) {
+            sb.append(c).append(',').append(faults(c)).append(',')
+              .append(String.format("%.6f", missRatio(c))).append('\n');
+            if (c == maxFrames) break;
+        }
+        out.print(sb);
+        out.flush();
+    }
+
+    /** Sampled references with a (scaled) stack distance beyond {@code frames}, cold ones included. */
+    private long misses(double frames) {
+        long misses = cold;
+        for (int d = maxDistance; d > frames; d--) misses += histogram[d];
+        return misses;
+    }
+
+    private int prefix(int i) {
+        int sum = 0;
+        for (; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private void add(int i, int delta) {
+        for (; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /**
+     * Renumbers the latest reference of every page to times 1..marks, keeping their order,
+     * and rebuilds the tree over them in O(n). The tree doubles only when the marks would fill
+     * more than half of it, so every compaction frees at least half the tree and its cost is
+     * paid for by the references that filled it.
+     */
+    private void compact() {
+        int live = 0;
+        for (int t = 1; t <= time; t++) {
+            int page = pageAt[t];
+            if (last.get(page) == t) { // still the page's latest reference
+                pageAt[++live] = page;
+                last.put(page, live);
+            }
+        }
+        time = live;
+
+        int n = tree.length;
+        if (marks + 1 > n >> 1) {
+            if (n == 1 << 30) {
+                throw new IllegalStateException("Too many distinct sampled pages; use a lower sampling rate");
+            }
+            n <<= 1;
+            pageAt = Arrays.copyOf(pageAt, n);
+        }
+        tree = new int[n];
+        for (int i = 1; i < n; i++) { // nodes past the marks still cover them, so run to the end
+            if (i <= marks) tree[i]++;
+            int parent = i + (i & -i);
+            if (parent < n) tree[parent] += tree[i];
+        }
+    }
+
+    /**
+     * Checks the exact curve on {@code references} seeded random references over {@code pages}
+     * pages: on a prefix it must match {@link LruReplacement} fault for fault at several frame
+     * counts, and after streaming every reference the tree must still be sized by the pages,
+     * not by the references, and the curve must show only compulsory faults at {@code pages}
+     * frames.
+     *
+     * @return whether every check passed; each check prints a PASS or FAIL line to {@code out}
+     */
+    public static boolean verify(long references, int pages, long seed, PrintStream out) {
+        boolean ok = true;
+
+        int[] prefix = new SplittableRandom(seed).ints((int) Math.min(references, 1 << 20), 0, pages).toArray();
+        MissRatioCurve curve = new MissRatioCurve();
+        curve.accessAll(prefix);
+        for (int frames : new int[] { 1, Math.max(1, pages / 4), Math.max(1, pages / 2), Math.max(1, pages - 1), pages }) {
+            LruReplacement lru = new LruReplacement(frames);
+            for (int page : prefix) lru.access(page);
+            ok &= ConcurrentPageCache.report(out, "curve matches LRU with " + frames + " frames on "
+                    + prefix.length + " references", curve.faults(frames) == lru.faults(),
+                    curve.faults(frames) + " faults, LRU has " + lru.faults());
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        curve = new MissRatioCurve();
+        for (long i = 0; i < references; i++) curve.access(random.nextInt(pages));
+        int bound = Math.max(1 << 10, 4 * (curve.marks + 1));
+        ok &= ConcurrentPageCache.report(out, "tree bounded by " + curve.marks + " distinct pages after "
+                + references + " references", curve.tree.length <= bound,
+                "tree has " + curve.tree.length + " slots, bound " + bound);
+        ok &= ConcurrentPageCache.report(out, "only compulsory faults with " + pages + " frames",
+                curve.faults(pages) == curve.marks, curve.faults(pages) + " faults for " + curve.marks + " pages");
+        return ok;
+    }
+
+    /** murmur3 finaliser: spreads page numbers so that any threshold samples uniformly. */
+    private static int hash(int x) {
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        x *= 0xC2B2AE35;
+        return x ^ (x >>> 16);
+    }
+
+    /** Computes and prints the curve for a reference file. */
+    public static void main(String[] args) throws IOException {
+        double rate = 1;
+        int max = -1, points = 64, distinct = 1000;
+        long references = 100_000_000, seed = 42;
+        String file = null;
+        boolean verify = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate":       rate = Double.parseDouble(args[++i]); break;
+                case "--max":        max = Integer.parseInt(args[++i]); break;
+                case "--points":     points = Integer.parseInt(args[++i]); break;
+                case "--references": references = Long.parseLong(args[++i]); break;
+                case "--pages":      distinct = Integer.parseInt(args[++i]); break;
+                case "--seed":       seed = Long.parseLong(args[++i]); break;
+                case "--verify":     verify = true; break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+        if (verify) {
+            if (!verify(references, distinct, seed, System.out)) System.exit(1);
+            return;
+        }
+        if (file == null) {
+            System.err.println("Usage: java MissRatioCurve pages.bin|pages.txt [--rate r] [--max frames] [--points n] | --verify");
+            System.exit(2);
+        }
+
+        MissRatioCurve curve = rate == 1 ? new MissRatioCurve() : sampled(rate);
+        long start = System.nanoTime();
+        if (file.endsWith(".bin")) {
+            try (ReferenceTrace trace = ReferenceTrace.map(Paths.get(file))) {
+                curve.accessAll(trace);
+            }
+        } else {
+            try (IntStream pages = ReferenceTrace.text(Paths.get(file))) {
+                curve.accessAll(ReferenceTrace.of(pages));
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.err.printf("%d references, sampling rate %.4f, %.1f ms%n", curve.references(), rate, nanos / 1e6);
+        curve.print(max > 0 ? max : Math.max(1, curve.maxFrames()), points, System.out);
+    }
+}
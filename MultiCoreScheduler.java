@@ -0,0 +1,447 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Symmetric multiprocessor (SMP) scheduling: N identical cores, each running one of the
+ * single-CPU {@link Policy policies} over its ready queue, with pluggable load balancing.
+ *
+ * <ul>
+ *   <li>{@link Balancer#GLOBAL} — one ready queue shared by every core; an idle core takes the
+ *       head of the queue.</li>
+ *   <li>{@link Balancer#WORK_STEALING} — arrivals are sprayed round-robin over per-core queues;
+ *       a core whose own queue is empty steals the head of the longest other queue. Round Robin
+ *       slices go back to the queue of the core they ran on.</li>
+ *   <li>{@link Balancer#AFFINITY} — each process is pinned to core {@code pid mod N} and never
+ *       migrates.</li>
+ * </ul>
+ *
+ * Every ready queue is a {@link LongHeap} of (policy key, arrival rank): the arrival rank for
+ * FCFS, the burst for SJF, the priority number for Priority, and an enqueue sequence number
+ * (i.e. a FIFO) for Round Robin. FCFS, SJF and Priority are non-preemptive; Round Robin
+ * time-slices every dispatch. Like {@link RoundRobinEngine}, processes that arrive by the end
+ * of a slice queue ahead of the process whose slice just ended.
+ *
+ * The simulation is event-driven over slice ends and arrivals. Under GLOBAL and WORK_STEALING
+ * every dispatch depends on the state of all cores at that instant, so those modes run as one
+ * loop. Under AFFINITY the cores share nothing, so each core is simulated independently on a
+ * {@link ForkJoinPool} — one task per core, each writing a disjoint set of completion slots and
+ * its own {@link Timeline}.
+ *
+ * Usage:
+ * <pre>
+ * java MultiCoreScheduler [processes.txt] [--cores N] [--policy fcfs|sjf|rr|priority]
+ *                         [--quantum Q] [--balancer global|stealing|affinity] [--summarise BARS]
+ * </pre>
+ */
+public class MultiCoreScheduler {
+
+    /** Ready-queue order on each core. */
+    public enum Policy {
+        FCFS("FCFS"),
+        SJF("SJF"),
+        ROUND_ROBIN("Round Robin"),
+        PRIORITY("Priority");
+
+        final String label;
+
+        Policy(String label) {
+            this.label = label;
+        }
+    }
+
+    /** How processes are spread over the cores. */
+    public enum Balancer {
+        GLOBAL("global queue"),
+        WORK_STEALING("work stealing"),
+        AFFINITY("affinity");
+
+        final String label;
+
+        Balancer(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Outcome of one multi-core run. */
+    public static class Result {
+        /** Per-process metrics over all cores; its timeline is {@code null}, see {@link #cores}. */
+        public final ScheduleResult metrics;
+        /** Execution segments per core; segment indices are table rows. */
+        public final Timeline[] cores;
+        /** Dispatches that took a process from another core's queue. */
+        public final long steals;
+        /** Dispatches of a process on a different core than its previous slice. */
+        public final long migrations;
+        public final long nanos;
+
+        Result(ScheduleResult metrics, Timeline[] cores, long steals, long migrations, long nanos) {
+            this.metrics = metrics;
+            this.cores = cores;
+            this.steals = steals;
+            this.migrations = migrations;
+            this.nanos = nanos;
+        }
+
+        /** Busy time of one core. */
+        public long busy(int core) {
+            Timeline t = cores[core];
+            long busy = 0;
+            for (int i = 0; i < t.size(); i++) {
+                busy += t.end(i) - t.start(i);
+            }
+            return busy;
+        }
+
+        /** Share of core-time in [0, makespan) spent running processes. */
+        public double utilization() {
+            long busy = 0;
+            for (int c = 0; c < cores.length; c++) {
+                busy += busy(c);
+            }
+            long capacity = (long) cores.length * metrics.makespan;
+            return capacity == 0 ? 0 : (double) busy / capacity;
+        }
+    }
+
+    /**
+     * Simulates {@code table} on {@code cores} cores without producing any output.
+     *
+     * @param table    processes to schedule (not modified, safe to share between threads once trimmed)
+     * @param cores    number of cores (positive)
+     * @param policy   ready-queue order on every core
+     * @param quantum  time slice for {@link Policy#ROUND_ROBIN} (ignored otherwise)
+     * @param balancer how processes are spread over the cores
+     * @param pool     where AFFINITY runs its per-core simulations (unused by the other balancers)
+     */
+    public static Result run(ProcessTable table, int cores, Policy policy, int quantum,
+                             Balancer balancer, ForkJoinPool pool) {
+        if (cores <= 0) {
+            throw new IllegalArgumentException("Core count must be positive: " + cores);
+        }
+        if (policy == Policy.ROUND_ROBIN && quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        }
+        int n = table.trim().size();
+        long begin = System.nanoTime();
+
+        int[] byArrival = Permutation.sortedBy(table.arrival, table.pid, n);
+        int[] completion = new int[n];
+        Timeline[] timelines = new Timeline[cores];
+        for (int c = 0; c < cores; c++) {
+            timelines[c] = new Timeline();
+        }
+
+        long steals = 0, migrations = 0;
+        if (balancer == Balancer.AFFINITY) {
+            // Bucket the arrival order by home core; each bucket stays arrival-sorted.
+            int[] start = new int[cores + 1];
+            for (int i = 0; i < n; i++) {
+                start[home(table.pid[i], cores) + 1]++;
+            }
+            for (int c = 0; c < cores; c++) {
+                start[c + 1] += start[c];
+            }
+            int[] fill = Arrays.copyOf(start, cores);
+            int[] rows = new int[n];
+            for (int i : byArrival) {
+                rows[fill[home(table.pid[i], cores)]++] = i;
+            }
+            pool.invoke(new CoreTask(table, rows, start, policy, quantum, completion, timelines, 0, cores));
+        } else {
+            Engine engine = new Engine(table, byArrival, policy, quantum, balancer, completion, timelines);
+            engine.run();
+            steals = engine.steals;
+            migrations = engine.migrations;
+        }
+
+        String name = "SMP " + policy.label
+                      + (policy == Policy.ROUND_ROBIN ? " (Quantum = " + quantum + ")" : "")
+                      + ", " + cores + (cores == 1 ? " core, " : " cores, ") + balancer.label;
+        ScheduleResult metrics = new ScheduleResult(name, table, completion, null, null);
+        return new Result(metrics, timelines, steals, migrations, System.nanoTime() - begin);
+    }
+
+    /** Core a process is pinned to under {@link Balancer#AFFINITY}. */
+    static int home(int pid, int cores) {
+        return Math.floorMod(pid, cores);
+    }
+
+    /** Prints the full report for one run to stdout. */
+    public static void print(Result result) {
+        print(result, new GanttRenderer(), System.out);
+    }
+
+    /**
+     * Prints per-process WT/TAT, one Gantt chart per core, and the aggregates.
+     *
+     * @param result the run to report
+     * @param gantt  chart renderer (e.g. {@code new GanttRenderer().summarised(20)} for huge runs)
+     * @param out    destination
+     */
+    public static void print(Result result, GanttRenderer gantt, PrintStream out) {
+        ScheduleResult m = result.metrics;
+        StringBuilder sb = new StringBuilder(1 << 12);
+        sb.append('\n').append(m.algorithm).append(":\n");
+        for (int i = 0; i < m.size(); i++) {
+            sb.append('P').append(m.pid[i])
+              .append(" -> WT: ").append(m.waiting[i])
+              .append(", TAT: ").append(m.turnaround[i]).append('\n');
+            if (sb.length() >= 1 << 16) {
+                out.append(sb);
+                sb.setLength(0);
+            }
+        }
+        out.append(sb);
+
+        for (int c = 0; c < result.cores.length; c++) {
+            out.print("\nCore " + c);
+            gantt.print(result.cores[c], m.pid, out);
+        }
+
+        out.println("Average WT: " + m.averageWT());
+        out.println("Average TAT: " + m.averageTAT());
+        out.printf("Makespan: %d, Utilization: %.1f%%, Steals: %d, Migrations: %d%n",
+                   m.makespan, 100 * result.utilization(), result.steals, result.migrations);
+    }
+
+    /**
+     * The event loop for one group of cores that share queues (all cores under GLOBAL and
+     * WORK_STEALING, a single core under AFFINITY).
+     *
+     * Per-process state is indexed by arrival rank within {@code rows}, so an AFFINITY core only
+     * allocates for its own processes.
+     */
+    private static final class Engine {
+        private final int[] rows;          // table rows in arrival order
+        private final int[] arrival;
+        private final int[] burst;
+        private final int[] priority;
+        private final Policy policy;
+        private final int quantum;
+        private final boolean shared;      // one queue for every core
+        private final boolean stealing;
+        private final int[] completion;    // by table row
+        private final Timeline[] timelines;
+
+        private final LongHeap[] queues;
+        private final int[] remaining;     // by rank
+        private final int[] lastCore;      // by rank; -1 before the first dispatch
+        private final int[] running;       // by core: rank on the core, or -1
+        private final int[] sliceStart;    // by core
+        private final LongHeap events = new LongHeap(64); // (slice end, core)
+        private int sequence;              // Round Robin FIFO order
+        private int sprayed;               // WORK_STEALING placement cursor
+
+        long steals, migrations;
+
+        Engine(ProcessTable table, int[] rows, Policy policy, int quantum, Balancer balancer,
+               int[] completion, Timeline[] timelines) {
+            this.rows = rows;
+            this.arrival = table.arrival;
+            this.burst = table.burst;
+            this.priority = table.priority;
+            this.policy = policy;
+            this.quantum = quantum;
+            this.shared = balancer == Balancer.GLOBAL;
+            this.stealing = balancer == Balancer.WORK_STEALING;
+            this.completion = completion;
+            this.timelines = timelines;
+
+            int cores = timelines.length;
+            queues = new LongHeap[shared ? 1 : cores];
+            for (int q = 0; q < queues.length; q++) {
+                queues[q] = new LongHeap(16);
+            }
+            remaining = new int[rows.length];
+            lastCore = new int[rows.length];
+            for (int r = 0; r < rows.length; r++) {
+                remaining[r] = burst[rows[r]];
+            }
+            Arrays.fill(lastCore, -1);
+            running = new int[cores];
+            Arrays.fill(running, -1);
+            sliceStart = new int[cores];
+        }
+
+        void run() {
+            int n = rows.length, cores = running.length;
+            int[] expiredRank = new int[cores];
+            int[] expiredCore = new int[cores];
+            int next = 0, done = 0, idle = cores;
+
+            while (done < n) {
+                int now = Integer.MAX_VALUE;
+                if (!events.isEmpty()) now = LongHeap.key(events.peek());
+                if (next < n) now = Math.min(now, arrival[rows[next]]);
+
+                // 1) Slices ending now: completions, and Round Robin slices to requeue
+                int expired = 0;
+                while (!events.isEmpty() && LongHeap.key(events.peek()) == now) {
+                    int c = LongHeap.index(events.pop());
+                    int r = running[c];
+                    running[c] = -1;
+                    idle++;
+                    timelines[c].add(rows[r], sliceStart[c], now);
+                    remaining[r] -= now - sliceStart[c];
+                    if (remaining[r] == 0) {
+                        completion[rows[r]] = now;
+                        done++;
+                    } else {
+                        expiredRank[expired] = r;
+                        expiredCore[expired++] = c;
+                    }
+                }
+
+                // 2) Arrivals, which queue ahead of the expired slices
+                while (next < n && arrival[rows[next]] <= now) {
+                    enqueue(stealing ? sprayed++ % cores : 0, next++);
+                }
+                for (int k = 0; k < expired; k++) {
+                    enqueue(shared ? 0 : expiredCore[k], expiredRank[k]);
+                }
+
+                // 3) Idle cores take from their own queue first, then (if stealing) from others
+                if (idle == 0) continue;
+                for (int c = 0; c < cores; c++) {
+                    LongHeap q = queues[shared ? 0 : c];
+                    if (running[c] == -1 && !q.isEmpty()) {
+                        dispatch(c, LongHeap.index(q.pop()), now);
+                        idle--;
+                    }
+                }
+                if (stealing) {
+                    for (int c = 0; c < cores && idle > 0; c++) {
+                        if (running[c] != -1) continue;
+                        int victim = longestQueue();
+                        if (victim == -1) break;
+                        dispatch(c, LongHeap.index(queues[victim].pop()), now);
+                        idle--;
+                        steals++;
+                    }
+                }
+            }
+        }
+
+        private void enqueue(int q, int r) {
+            int key;
+            switch (policy) {
+                case FCFS:     key = r; break;
+                case SJF:      key = burst[rows[r]]; break;
+                case PRIORITY: key = priority[rows[r]]; break;
+                default:       key = sequence++; break;
+            }
+            queues[q].push(LongHeap.pack(key, r));
+        }
+
+        private void dispatch(int c, int r, int now) {
+            if (lastCore[r] != -1 && lastCore[r] != c) migrations++;
+            lastCore[r] = c;
+            running[c] = r;
+            sliceStart[c] = now;
+            int slice = policy == Policy.ROUND_ROBIN ? Math.min(quantum, remaining[r]) : remaining[r];
+            events.push(LongHeap.pack(now + slice, c));
+        }
+
+        /** Core with the most queued processes, or -1 if every queue is empty. */
+        private int longestQueue() {
+            int best = -1, size = 0;
+            for (int q = 0; q < queues.length; q++) {
+                if (queues[q].size() > size) {
+                    size = queues[q].size();
+                    best = q;
+                }
+            }
+            return best;
+        }
+    }
+
+    /** Splits the cores in halves until one remains, then simulates it alone. */
+    private static class CoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ProcessTable table;
+        private final transient int[] rows;         // arrival order, bucketed by home core
+        private final transient int[] start;        // bucket c is rows[start[c], start[c + 1])
+        private final transient Policy policy;
+        private final int quantum;
+        private final transient int[] completion;
+        private final transient Timeline[] timelines;
+        private final int from, to;
+
+        CoreTask(ProcessTable table, int[] rows, int[] start, Policy policy, int quantum,
+                 int[] completion, Timeline[] timelines, int from, int to) {
+            this.table = table;
+            this.rows = rows;
+            this.start = start;
+            this.policy = policy;
+            this.quantum = quantum;
+            this.completion = completion;
+            this.timelines = timelines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int[] own = Arrays.copyOfRange(rows, start[from], start[from + 1]);
+                new Engine(table, own, policy, quantum, Balancer.AFFINITY, completion,
+                           new Timeline[] { timelines[from] }).run();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CoreTask(table, rows, start, policy, quantum, completion, timelines, from, mid),
+                      new CoreTask(table, rows, start, policy, quantum, completion, timelines, mid, to));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = "processes.txt";
+        int cores = 4, quantum = 2, summarise = 0;
+        Policy policy = Policy.ROUND_ROBIN;
+        Balancer balancer = Balancer.WORK_STEALING;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--cores":     cores = Integer.parseInt(args[++i]); break;
+                case "--quantum":   quantum = Integer.parseInt(args[++i]); break;
+                case "--summarise": summarise = Integer.parseInt(args[++i]); break;
+                case "--policy":
+                    switch (args[++i]) {
+                        case "fcfs":     policy = Policy.FCFS; break;
+                        case "sjf":      policy = Policy.SJF; break;
+                        case "rr":       policy = Policy.ROUND_ROBIN; break;
+                        case "priority": policy = Policy.PRIORITY; break;
+                        default:
+                            System.err.println("Unknown policy: " + args[i]);
+                            System.exit(2);
+                    }
+                    break;
+                case "--balancer":
+                    switch (args[++i]) {
+                        case "global":   balancer = Balancer.GLOBAL; break;
+                        case "stealing": balancer = Balancer.WORK_STEALING; break;
+                        case "affinity": balancer = Balancer.AFFINITY; break;
+                        default:
+                            System.err.println("Unknown balancer: " + args[i]);
+                            System.exit(2);
+                    }
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        ProcessTable table = ProcessScheduler.loadTable(file);
+        Result result = run(table, cores, policy, quantum, balancer, ForkJoinPool.commonPool());
+        print(result, new GanttRenderer().summarised(summarise), System.out);
+        System.out.printf("Simulated in %.2f ms%n", result.nanos / 1e6);
+    }
+}
@@ -0,0 +1,354 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Single-CPU scheduler for a live feed: processes are submitted one at a time, in arrival
+ * order, and dispatched as simulated time advances — no closed process list is needed.
+ *
+ * Only in-flight processes are kept. Each occupies a slot in a set of {@code int[]} columns;
+ * when it completes its metrics are folded into running totals and {@link Histogram}s and the
+ * slot goes back on a free stack for the next submission. Memory therefore follows the number
+ * of processes in flight (the columns grow to the peak), not the length of the feed.
+ *
+ * Any {@link MultiCoreScheduler.Policy} can be used, with the same semantics as the batch
+ * schedulers: FCFS, SJF and Priority are non-preemptive, Round Robin slices every dispatch,
+ * and processes arriving at the end of a slice queue ahead of the process whose slice ended.
+ * Ties go to the earlier submission.
+ *
+ * Time moves forward through {@link #submit} (to the new arrival), {@link #advanceTo(int)}
+ * (when the feed is quiet) and {@link #finish()} (run everything still in flight). Decisions at
+ * time t are only taken once the clock has passed t, so every arrival at t is seen first.
+ *
+ * Usage:
+ * <pre>
+ * java OnlineScheduler [--policy fcfs|sjf|rr|priority] [--quantum Q] [--every N] [--verbose] [trace.txt | -]
+ * </pre>
+ * reads "pid arrival burst priority" rows (header and malformed rows skipped, as in
+ * {@code processes.txt}) from the file, or from stdin by default, and prints a status line
+ * every N completions.
+ */
+public class OnlineScheduler implements ProcessSink {
+
+    /** Receives each process as it completes. */
+    public interface Listener {
+        void completed(int pid, int arrival, int burst, int firstRun, int completion);
+    }
+
+    private static final int IDLE = -1;
+    private static final int COMPLETED = -2;   // lastSlot after its process finished
+
+    private final MultiCoreScheduler.Policy policy;
+    private final int quantum;
+    private Listener listener;
+
+    // In-flight processes, by slot
+    private int[] pid = new int[16];
+    private int[] arrival = new int[16];
+    private int[] burst = new int[16];
+    private int[] priority = new int[16];
+    private int[] remaining = new int[16];
+    private int[] firstRun = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slots;                         // high-water mark of slots handed out
+
+    private final IndexedHeap ready = new IndexedHeap(16);  // slot -> (policy key, submission order)
+    private int sequence;
+    private int now;
+    private int horizon = Integer.MIN_VALUE;   // no submission may arrive before this
+    private int running = IDLE;
+    private int sliceStart, sliceEnd;
+    private int lastSlot = IDLE;
+
+    // Running metrics
+    public final Histogram waiting = new Histogram();
+    public final Histogram turnaround = new Histogram();
+    public final Histogram response = new Histogram();
+    private long submitted, completed;
+    private long totalWT, totalTAT;
+    private long busy, contextSwitches;
+    private int firstArrival;
+
+    /**
+     * @param policy  ready-queue order
+     * @param quantum time slice for {@link MultiCoreScheduler.Policy#ROUND_ROBIN} (ignored otherwise)
+     */
+    public OnlineScheduler(MultiCoreScheduler.Policy policy, int quantum) {
+        if (policy == MultiCoreScheduler.Policy.ROUND_ROBIN && quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        }
+        this.policy = policy;
+        this.quantum = quantum;
+    }
+
+    /** Sets the completion listener ({@code null} for none). */
+    public OnlineScheduler listener(Listener l) {
+        this.listener = l;
+        return this;
+    }
+
+    /** Same as {@link #submit}, so a {@link TraceLoader} can stream a file straight in. */
+    @Override
+    public void add(int pid, int arrivalTime, int burstTime, int priority) {
+        submit(pid, arrivalTime, burstTime, priority);
+    }
+
+    /**
+     * Submits a process. Simulated time first advances to its arrival.
+     *
+     * @throws IllegalArgumentException if it arrives before an earlier submission or before a
+     *                                  time already passed to {@link #advanceTo(int)}, or if
+     *                                  its burst is negative
+     */
+    public void submit(int pid, int arrivalTime, int burstTime, int priority) {
+        if (arrivalTime < horizon) {
+            throw new IllegalArgumentException("Arrival " + arrivalTime + " of P" + pid
+                                               + " is before time already simulated (" + horizon + ")");
+        }
+        if (burstTime < 0) {
+            throw new IllegalArgumentException("Negative burst for P" + pid + ": " + burstTime);
+        }
+        advance(arrivalTime);
+        horizon = arrivalTime;
+        if (submitted++ == 0) firstArrival = arrivalTime;
+        if (running == IDLE && ready.isEmpty()) now = arrivalTime;
+
+        int s = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+        this.pid[s] = pid;
+        this.arrival[s] = arrivalTime;
+        this.burst[s] = burstTime;
+        this.priority[s] = priority;
+        this.remaining[s] = burstTime;
+        this.firstRun[s] = -1;
+        enqueue(s);
+    }
+
+    /** Declares that no process will arrive before {@code time} and simulates up to it. */
+    public void advanceTo(int time) {
+        if (time < horizon) return;
+        advance(time);
+        horizon = time;
+    }
+
+    /** Runs every in-flight process to completion. */
+    public void finish() {
+        advance(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Processes every slice end and dispatch strictly before {@code limit}; those at
+     * {@code limit} wait for the arrivals at {@code limit}.
+     */
+    private void advance(int limit) {
+        while (true) {
+            if (running == IDLE) {
+                if (ready.isEmpty() || now >= limit) return;
+                dispatch(ready.poll());
+            }
+            if (sliceEnd >= limit && limit != Integer.MAX_VALUE) return;
+
+            int s = running;
+            now = sliceEnd;
+            remaining[s] -= now - sliceStart;
+            busy += now - sliceStart;
+            running = IDLE;
+            if (remaining[s] == 0) {
+                complete(s);
+            } else {
+                enqueue(s);
+            }
+        }
+    }
+
+    private void dispatch(int s) {
+        if (lastSlot != IDLE && lastSlot != s) contextSwitches++;
+        lastSlot = s;
+        if (firstRun[s] < 0) firstRun[s] = now;
+        running = s;
+        sliceStart = now;
+        int slice = policy == MultiCoreScheduler.Policy.ROUND_ROBIN ? Math.min(quantum, remaining[s]) : remaining[s];
+        sliceEnd = now + slice;
+    }
+
+    private void enqueue(int s) {
+        if (ready.isEmpty()) sequence = 0; // order only matters among queued processes
+        int key;
+        switch (policy) {
+            case SJF:      key = burst[s]; break;
+            case PRIORITY: key = priority[s]; break;
+            default:       key = 0; break;
+        }
+        ready.insert(s, ((long) key << 32) | (sequence++ & 0xFFFFFFFFL));
+    }
+
+    private void complete(int s) {
+        int tat = now - arrival[s];
+        int wt = tat - burst[s];
+        turnaround.record(tat);
+        waiting.record(wt);
+        response.record(firstRun[s] - arrival[s]);
+        totalTAT += tat;
+        totalWT += wt;
+        completed++;
+        lastSlot = COMPLETED;
+        if (listener != null) listener.completed(pid[s], arrival[s], burst[s], firstRun[s], now);
+        freeSlots[freeCount++] = s;
+    }
+
+    private int newSlot() {
+        if (slots == pid.length) {
+            int cap = slots << 1;
+            pid = Arrays.copyOf(pid, cap);
+            arrival = Arrays.copyOf(arrival, cap);
+            burst = Arrays.copyOf(burst, cap);
+            priority = Arrays.copyOf(priority, cap);
+            remaining = Arrays.copyOf(remaining, cap);
+            firstRun = Arrays.copyOf(firstRun, cap);
+            freeSlots = Arrays.copyOf(freeSlots, cap);
+        }
+        return slots++;
+    }
+
+    /** Current simulated time. */
+    public int now() {
+        return now;
+    }
+
+    public long submitted() {
+        return submitted;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    /** Processes submitted but not yet completed. */
+    public long inFlight() {
+        return submitted - completed;
+    }
+
+    /** Peak number of slots ever in use, i.e. the size of the columns. */
+    public int peakInFlight() {
+        return slots;
+    }
+
+    public long contextSwitches() {
+        return contextSwitches;
+    }
+
+    public double averageWT() {
+        return completed == 0 ? 0 : totalWT / (double) completed;
+    }
+
+    public double averageTAT() {
+        return completed == 0 ? 0 : totalTAT / (double) completed;
+    }
+
+    /** Share of time since the first arrival that the CPU was busy. */
+    public double utilization() {
+        long span = (long) now - firstArrival;
+        return span <= 0 ? 0 : (double) busy / span;
+    }
+
+    /** One-line snapshot of the running metrics. */
+    public String status() {
+        return String.format("t=%d submitted=%d completed=%d in-flight=%d avgWT=%.2f avgTAT=%.2f "
+                             + "p99TAT=%d maxTAT=%d switches=%d util=%.1f%%",
+                             now, submitted, completed, inFlight(), averageWT(), averageTAT(),
+                             turnaround.valueAtPercentile(99), turnaround.max(), contextSwitches,
+                             100 * utilization());
+    }
+
+    /**
+     * Streams "pid arrival burst priority" rows from a reader into {@code sink}, skipping the
+     * header and malformed rows like {@link TraceLoader}. Returns the number of rows accepted.
+     */
+    static long stream(BufferedReader in, ProcessSink sink) throws IOException {
+        long rows = 0;
+        boolean header = true;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (header) {
+                header = false;
+                continue;
+            }
+            String[] tok = line.trim().split("\\s+");
+            if (tok.length < 4) continue;
+            try {
+                int p = Integer.parseInt(tok[0]);
+                int a = Integer.parseInt(tok[1]);
+                int b = Integer.parseInt(tok[2]);
+                int pr = Integer.parseInt(tok[3]);
+                sink.add(p, a, b, pr);
+                rows++;
+            } catch (NumberFormatException e) {
+                // skip, as the batch loaders do
+            }
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = "-";
+        int quantum = 2;
+        long every = 1000;
+        boolean verbose = false;
+        MultiCoreScheduler.Policy policy = MultiCoreScheduler.Policy.ROUND_ROBIN;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--quantum": quantum = Integer.parseInt(args[++i]); break;
+                case "--every":   every = Long.parseLong(args[++i]); break;
+                case "--verbose": verbose = true; break;
+                case "--policy":
+                    switch (args[++i]) {
+                        case "fcfs":     policy = MultiCoreScheduler.Policy.FCFS; break;
+                        case "sjf":      policy = MultiCoreScheduler.Policy.SJF; break;
+                        case "rr":       policy = MultiCoreScheduler.Policy.ROUND_ROBIN; break;
+                        case "priority": policy = MultiCoreScheduler.Policy.PRIORITY; break;
+                        default:
+                            System.err.println("Unknown policy: " + args[i]);
+                            System.exit(2);
+                    }
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        OnlineScheduler scheduler = new OnlineScheduler(policy, quantum);
+        long statusEvery = Math.max(1, every);
+        boolean printEach = verbose;
+        scheduler.listener((p, a, b, first, c) -> {
+            if (printEach) {
+                System.out.println("P" + p + " -> WT: " + (c - a - b) + ", TAT: " + (c - a));
+            }
+            if (scheduler.completed() % statusEvery == 0) {
+                System.out.println(scheduler.status());
+            }
+        });
+
+        if (file.equals("-")) {
+            stream(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), scheduler);
+        } else {
+            TraceLoader.load(Paths.get(file), scheduler);
+        }
+        scheduler.finish();
+
+        if (scheduler.completed() % statusEvery != 0) {
+            System.out.println(scheduler.status()); // the listener has not just printed it
+        }
+        System.out.println("Response time:   " + scheduler.response.summary());
+        System.out.println("Waiting time:    " + scheduler.waiting.summary());
+        System.out.println("Turnaround time: " + scheduler.turnaround.summary());
+        System.out.println("Peak in flight:  " + scheduler.peakInFlight());
+    }
+}
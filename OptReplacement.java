@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+/**
+ * Belady's optimal (OPT/MIN) page replacement: on a fault, evict the resident page whose next
+ * use lies farthest in the future. No online policy can fault less, so OPT is the lower bound
+ * the other policies are measured against.
+ *
+ * OPT needs the future, so it is built over the whole reference string. One backward pass
+ * fills {@code nextUse[i]} (the next position referencing the same page as position i) with
+ * an {@link IntIntMap} of last-seen positions; after that every reference is O(log frames):
+ * resident frames sit in an {@link IndexedHeap} keyed by their next use, farthest first, and
+ * a reference just re-keys its frame. Nothing is allocated per reference.
+ *
+ * {@link #access(int)} must be fed the same reference string, in order.
+ */
+public class OptReplacement implements ReplacementPolicy {
+
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    private final int[] pages;
+    private final int[] nextUse;
+    private int position;
+
+    private final int[] page;            // frame -> page
+    private final IntIntMap frameOf;     // page -> frame
+    private final IndexedHeap farthest;  // frames, farthest next use first (ties: lowest frame)
+    private int resident;
+    private long faults;
+    private int lastEvicted = -1;
+
+    /**
+     * @param frames number of frames
+     * @param pages  the reference string that will be replayed
+     */
+    public OptReplacement(int frames, int[] pages) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        this.pages = pages;
+        this.nextUse = new int[pages.length];
+        IntIntMap lastSeen = new IntIntMap(Math.min(pages.length, 1 << 16));
+        for (int i = pages.length - 1; i >= 0; i--) {
+            int seen = lastSeen.put(pages[i], i);
+            nextUse[i] = seen == -1 ? NEVER : seen;
+        }
+
+        page = new int[frames];
+        frameOf = new IntIntMap(frames);
+        farthest = new IndexedHeap(frames);
+    }
+
+    @Override
+    public boolean access(int p) {
+        if (position >= pages.length || pages[position] != p) {
+            throw new IllegalStateException("OPT must replay its own reference string (position "
+                                            + position + ", page " + p + ")");
+        }
+        long key = key(nextUse[position++]);
+
+        boolean full = resident == page.length;
+        int f = full ? farthest.peek() : resident;
+        int hit = frameOf.putIfAbsent(p, f);
+        if (hit != -1) {
+            farthest.update(hit, key | hit);
+            return false;
+        }
+
+        if (full) {
+            lastEvicted = page[f];
+            frameOf.remove(lastEvicted);
+            farthest.update(f, key | f);
+        } else {
+            resident++;
+            lastEvicted = -1;
+            farthest.insert(f, key | f);
+        }
+        page[f] = p;
+        faults++;
+        return true;
+    }
+
+    @Override
+    public long faults() {
+        return faults;
+    }
+
+    @Override
+    public int lastEvicted() {
+        return lastEvicted;
+    }
+
+    @Override
+    public int frameOf(int p) {
+        return frameOf.get(p);
+    }
+
+    @Override
+    public int frames() {
+        return page.length;
+    }
+
+    @Override
+    public int resident() {
+        return resident;
+    }
+
+    /** Resident pages, farthest next use (next victim) first. */
+    @Override
+    public int snapshot(int[] out) {
+        long[] keys = new long[resident];
+        for (int f = 0; f < resident; f++) keys[f] = farthest.key(f);
+        Arrays.sort(keys);
+        for (int i = 0; i < resident; i++) out[i] = page[(int) keys[i]];
+        return resident;
+    }
+
+    @Override
+    public String name() {
+        return "OPT";
+    }
+
+    /** Min-heap key: larger next use sorts first; the low 32 bits are left for the frame. */
+    private static long key(int next) {
+        return (long) (NEVER - next) << 32;
+    }
+}
@@ -1,14 +1,39 @@
-import java.util.*;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
- * Provides two classic page replacement algorithms:
- * 1) FIFO – First-In-First-Out: evicts the oldest page in memory
- * 2) LRU  – Least Recently Used: evicts the least recently accessed page
+ * Provides page replacement algorithms:
+ * 1) FIFO  – First-In-First-Out: evicts the oldest page in memory
+ * 2) LRU   – Least Recently Used: evicts the least recently accessed page
+ * 3) OPT   – Belady's optimum: evicts the page used farthest in the future (lower bound)
+ * 4) Clock – Second-Chance: FIFO that skips (once) pages referenced since the last sweep
+ * 5) LFU   – Least Frequently Used: evicts the page with the fewest references
+ * 6) ARC   – Adaptive Replacement Cache: balances recency and frequency using ghost lists
+ * 7) LIRS  – Low Inter-reference Recency Set: ranks pages by reuse distance
  *
- * Both simulate a fixed-size frame buffer and print the page table after each request.
+ * Each simulates a fixed-size frame buffer and prints the page table after each request.
+ * The simulation itself is done by a {@link ReplacementPolicy}, which works in O(1) (OPT:
+ * O(log frames)) per reference without boxing; use
+ * {@link #run(ReplacementPolicy, int[], boolean)} with {@code print = false} for long
+ * reference strings, and {@link #compare(int[], int)} for the fault counts of every policy.
+ * To size memory, {@link MissRatioCurve} gives LRU's faults for every frame count in one pass.
+ * Traces that do not fit in the heap are replayed from a {@link ReferenceTrace} (an
+ * {@code IntStream} or a memory-mapped packed file) in fixed-size chunks. Policies are
+ * single-threaded; {@link ConcurrentPageCache} measures thread-safe variants under K threads.
  */
 public class PageReplacement {
 
+    /** Receives running totals while a long trace is replayed. */
+    public interface Progress {
+        void update(long references, long faults);
+    }
+
     /**
      * FIFO (First-In-First-Out) page replacement.
      * Keeps a simple queue of pages; oldest page is evicted when a fault occurs and memory is full.
@@ -17,55 +42,220 @@ public class PageReplacement {
      * @param frames number of available frames
      */
     public static void fifo(int[] pages, int frames) {
-        Queue<Integer> queue = new LinkedList<>(); // keeps insertion order
-        Set<Integer> memory = new HashSet<>();     // quick lookup for current pages
-        int pageFaults = 0;
-
         System.out.println("\nFIFO Page Replacement:");
-
-        for (int page : pages) {
-            if (!memory.contains(page)) { // page fault
-                if (queue.size() >= frames) {
-                    int removed = queue.poll();    // remove oldest
-                    memory.remove(removed);
-                }
-                queue.add(page);
-                memory.add(page);
-                pageFaults++;
-            }
-            System.out.println("Page Table: " + queue);
-        }
-
-        System.out.println("Total Page Faults: " + pageFaults);
+        run(new FifoReplacement(frames), pages, true);
     }
 
     /**
      * LRU (Least Recently Used) page replacement.
-     * Uses a LinkedHashMap in access-order mode to keep track of recency.
+     * Keeps pages in recency order; the least recently used page is evicted on a fault.
      *
      * @param pages  sequence of page requests
      * @param frames number of available frames
      */
     public static void lru(int[] pages, int frames) {
-        // LinkedHashMap(true) keeps entries ordered by access
-        LinkedHashMap<Integer, Integer> memory = new LinkedHashMap<>(frames, 0.75f, true);
-        int pageFaults = 0;
-
         System.out.println("\nLRU Page Replacement:");
+        run(new LruReplacement(frames), pages, true);
+    }
+
+    /** Belady's optimal replacement (needs the whole reference string in advance). */
+    public static void opt(int[] pages, int frames) {
+        System.out.println("\nOPT Page Replacement:");
+        run(new OptReplacement(frames, pages), pages, true);
+    }
+
+    /** Clock replacement; the page table is listed from the clock hand. */
+    public static void clock(int[] pages, int frames) {
+        System.out.println("\nClock Page Replacement:");
+        run(new ClockReplacement(frames), pages, true);
+    }
+
+    /**
+     * Second-Chance replacement. It is the FIFO-queue description of Clock and makes the same
+     * decisions, so this is {@link #clock(int[], int)} under another name.
+     */
+    public static void secondChance(int[] pages, int frames) {
+        clock(pages, frames);
+    }
+
+    /** LFU replacement; the page table is listed in eviction order. */
+    public static void lfu(int[] pages, int frames) {
+        System.out.println("\nLFU Page Replacement:");
+        run(new LfuReplacement(frames), pages, true);
+    }
+
+    /** ARC replacement; the page table lists T1 then T2, each least recent first. */
+    public static void arc(int[] pages, int frames) {
+        System.out.println("\nARC Page Replacement:");
+        run(new ArcReplacement(frames), pages, true);
+    }
+
+    /** LIRS replacement (at least 2 frames); the page table lists resident HIR then LIR pages. */
+    public static void lirs(int[] pages, int frames) {
+        System.out.println("\nLIRS Page Replacement:");
+        run(new LirsReplacement(frames), pages, true);
+    }
+
+    /** Every policy over the same frames, in report order (LIRS only from 2 frames). */
+    public static List<ReplacementPolicy> policies(int[] pages, int frames) {
+        List<ReplacementPolicy> all = new ArrayList<>(Arrays.asList(
+            new OptReplacement(frames, pages), new FifoReplacement(frames), new LruReplacement(frames),
+            new ClockReplacement(frames), new LfuReplacement(frames), new ArcReplacement(frames)));
+        if (frames >= 2) all.add(new LirsReplacement(frames));
+        return all;
+    }
+
+    /** Runs every policy over {@code pages} and prints one row of fault statistics per policy. */
+    public static void compare(int[] pages, int frames) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\nPage Replacement Comparison (").append(pages.length).append(" references, ")
+          .append(frames).append(" frames):\n");
+        sb.append(String.format("%-8s %12s %10s %10s%n", "Policy", "Faults", "Fault %", "vs OPT"));
+        long optimal = -1;
+        for (ReplacementPolicy policy : policies(pages, frames)) {
+            long faults = run(policy, pages, false);
+            if (optimal < 0) optimal = faults;
+            sb.append(String.format("%-8s %12d %9.1f%% %10s%n", policy.name(), faults,
+                                    pages.length == 0 ? 0.0 : 100.0 * faults / pages.length,
+                                    optimal == 0 ? "-" : String.format("%.2fx", (double) faults / optimal)));
+        }
+        System.out.print(sb);
+    }
 
+    /**
+     * Feeds every reference to {@code policy}. When {@code print} is set, the page table is
+     * printed after each reference (in the policy's order) followed by the fault count,
+     * buffered into one write.
+     *
+     * @return number of page faults
+     */
+    public static long run(ReplacementPolicy policy, int[] pages, boolean print) {
+        long before = policy.faults();
+        if (!print) {
+            for (int page : pages) policy.access(page);
+            return policy.faults() - before;
+        }
+
+        int[] table = new int[policy.frames()];
+        StringBuilder sb = new StringBuilder();
         for (int page : pages) {
-            if (!memory.containsKey(page)) { // page fault
-                if (memory.size() >= frames) {
-                    // remove the least recently used (the first key in access order)
-                    Integer lruPage = memory.keySet().iterator().next();
-                    memory.remove(lruPage);
+            policy.access(page);
+            int n = policy.snapshot(table);
+            sb.append("Page Table: [");
+            for (int i = 0; i < n; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(table[i]);
+            }
+            sb.append("]\n");
+        }
+        long faults = policy.faults() - before;
+        sb.append("Total Page Faults: ").append(faults).append('\n');
+        System.out.print(sb);
+        return faults;
+    }
+
+    /**
+     * Replays a chunked trace through {@code policy} in constant memory, calling
+     * {@code progress} (if not null) every {@code interval} references and once at the end.
+     *
+     * @return number of page faults
+     */
+    public static long run(ReplacementPolicy policy, ReferenceTrace trace, long interval, Progress progress)
+            throws IOException {
+        int[] chunk = new int[ReferenceTrace.CHUNK];
+        long before = policy.faults();
+        long references = 0;
+        long nextReport = interval > 0 && progress != null ? interval : Long.MAX_VALUE;
+        int n;
+        while ((n = trace.read(chunk)) > 0) {
+            int i = 0;
+            while (i < n) {
+                // Run up to the chunk end or the next report, whichever comes first
+                int end = (int) Math.min(n, i + (nextReport - references));
+                for (int k = i; k < end; k++) policy.access(chunk[k]);
+                references += end - i;
+                i = end;
+                if (references == nextReport) {
+                    progress.update(references, policy.faults() - before);
+                    nextReport += interval;
                 }
-                pageFaults++;
             }
-            memory.put(page, 1); // insert or mark as most recently used
-            System.out.println("Page Table: " + memory.keySet());
+        }
+        long faults = policy.faults() - before;
+        if (progress != null && references != nextReport - interval) progress.update(references, faults);
+        return faults;
+    }
+
+    /**
+     * Progress printer: references, faults, cumulative fault rate and the fault rate since the
+     * previous line.
+     */
+    public static Progress progressPrinter(PrintStream out) {
+        long[] previous = new long[2];
+        return (references, faults) -> {
+            long window = references - previous[0];
+            out.printf("%,15d refs %,15d faults %7.3f%% fault rate %7.3f%% recent%n", references, faults,
+                       references == 0 ? 0.0 : 100.0 * faults / references,
+                       window == 0 ? 0.0 : 100.0 * (faults - previous[1]) / window);
+            previous[0] = references;
+            previous[1] = faults;
+        };
+    }
+
+    /** Online policy by name (fifo, lru, clock, lfu, arc, lirs); OPT needs the whole string. */
+    public static ReplacementPolicy policy(String name, int frames) {
+        switch (name.toLowerCase()) {
+            case "fifo":  return new FifoReplacement(frames);
+            case "lru":   return new LruReplacement(frames);
+            case "clock":
+            case "second-chance": return new ClockReplacement(frames);
+            case "lfu":   return new LfuReplacement(frames);
+            case "arc":   return new ArcReplacement(frames);
+            case "lirs":  return new LirsReplacement(frames);
+            default:
+                throw new IllegalArgumentException("Unknown or offline-only policy: " + name);
+        }
+    }
+
+    /**
+     * Replays a reference trace (packed {@code .bin}, or whitespace-separated text otherwise)
+     * with progress reports.
+     *
+     * Usage: {@code java PageReplacement <pages.bin|pages.txt> [--policy lru] [--frames 64] [--interval n]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java PageReplacement <pages.bin|pages.txt> [--policy lru] [--frames 64] [--interval n]");
+            System.exit(2);
+        }
+        String name = "lru";
+        int frames = 64;
+        long interval = 10_000_000;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--policy":   name = args[++i]; break;
+                case "--frames":   frames = Integer.parseInt(args[++i]); break;
+                case "--interval": interval = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
         }
 
-        System.out.println("Total Page Faults: " + pageFaults);
+        Path file = Paths.get(args[0]);
+        ReplacementPolicy policy = policy(name, frames);
+        long start = System.nanoTime();
+        long faults;
+        if (args[0].endsWith(".bin")) {
+            try (ReferenceTrace trace = ReferenceTrace.map(file)) {
+                faults = run(policy, trace, interval, progressPrinter(System.out));
+            }
+        } else {
+            try (IntStream pages = ReferenceTrace.text(file); ReferenceTrace trace = ReferenceTrace.of(pages)) {
+                faults = run(policy, trace, interval, progressPrinter(System.out));
+            }
+        }
+        System.out.printf("%s with %d frames: %d faults in %.1f s%n",
+                          policy.name(), frames, faults, (System.nanoTime() - start) / 1e9);
     }
 }
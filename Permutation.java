@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+/**
+ * Index permutations over primitive columns.
+ *
+ * Instead of sorting process objects, schedulers sort an {@code int[]} of indices
+ * into their columns. Each (key, index) pair is packed into a single long so the
+ * sort runs on primitives and is stable with respect to the original index.
+ */
+public final class Permutation {
+
+    private Permutation() { }
+
+    /**
+     * Returns the indices {@code 0..n-1} ordered by {@code key[i]} ascending,
+     * ties broken by index (i.e. a stable sort).
+     *
+     * @param key column to sort by
+     * @param n   number of rows to consider (prefix of {@code key})
+     */
+    public static int[] sortedBy(int[] key, int n) {
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = LongHeap.pack(key[i], i);
+        }
+        Arrays.parallelSort(packed);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = LongHeap.index(packed[i]);
+        }
+        return order;
+    }
+
+    /** Same as {@link #sortedBy(int[], int)} over the whole column. */
+    public static int[] sortedBy(int[] key) {
+        return sortedBy(key, key.length);
+    }
+
+    /**
+     * Returns the indices {@code 0..n-1} ordered by {@code primary}, then {@code secondary},
+     * then index. Implemented as two primitive sorts: first by the secondary key, then by
+     * (primary key, position in the secondary order).
+     */
+    public static int[] sortedBy(int[] primary, int[] secondary, int n) {
+        int[] bySecondary = sortedBy(secondary, n);
+
+        long[] packed = new long[n];
+        for (int r = 0; r < n; r++) {
+            packed[r] = LongHeap.pack(primary[bySecondary[r]], r);
+        }
+        Arrays.parallelSort(packed);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = bySecondary[LongHeap.index(packed[i])];
+        }
+        return order;
+    }
+}
@@ -1,68 +1,134 @@
 import java.util.*;
 
 /**
- * Implements non-preemptive Priority Scheduling.
+ * Implements Priority Scheduling.
  * - Each process has a priority value; lower numbers mean higher priority.
- * - Once a process starts running, it finishes before the next one begins.
+ * - {@link #schedule(ProcessTable)} is non-preemptive: once a process starts running, it finishes
+ *   before the next one begins.
+ * - {@link #schedulePreemptive(ProcessTable)} lets a newly arrived, strictly higher-priority process
+ *   take the CPU from the running one.
  */
 public class PriorityScheduling {
 
     /**
-     * Schedules processes by priority and prints:
+     * Schedules processes by priority; see {@link #schedule(ProcessTable)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     */
+    public static void schedule(List<Process> processes) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Schedules a columnar process table by priority and prints:
      * - Waiting Time (WT) and Turnaround Time (TAT) per process.
      * - A Gantt chart showing execution order.
      * - Average WT and TAT.
      *
-     * @param processes list of processes to schedule
+     * @param table processes to schedule (not modified)
      */
-    public static void schedule(List<Process> processes) {
-        if (processes == null || processes.isEmpty()) {
+    public static void schedule(ProcessTable table) {
+        if (table.isEmpty()) {
             System.out.println("\nPriority Scheduling: No processes to schedule.");
             return;
         }
+        ScheduleRenderer.print(run(table));
+    }
 
-        // Sort by priority (lower number = higher priority), then by arrival time if needed
-        processes.sort(
-            Comparator.comparingInt((Process p) -> p.priority)
-                      .thenComparingInt(p -> p.arrivalTime)
-        );
-
-        int currentTime = 0;
-        long totalWT = 0, totalTAT = 0;
+    /**
+     * Simulates non-preemptive priority scheduling without producing any output.
+     *
+     * @param table processes to schedule (not modified, safe to share between threads once trimmed)
+     * @return per-process metrics, dispatch order and timeline
+     */
+    public static ScheduleResult run(ProcessTable table) {
+        int n = table.trim().size();
 
-        System.out.println("\nPriority Scheduling Gantt Chart:");
+        // Order by priority (lower number = higher priority), then by arrival time if needed
+        int[] order = table.byPriority();
 
-        // For Gantt chart
-        List<String> executionOrder = new ArrayList<>();
-        List<Integer> timestamps = new ArrayList<>();
-        timestamps.add(currentTime); // start timeline at 0
+        int currentTime = 0;
+        int[] completion = new int[n];
+        Timeline timeline = new Timeline(n);
 
         // Process tasks one by one
-        for (Process p : processes) {
+        for (int i : order) {
             // If CPU is idle until this process arrives, jump forward in time
-            if (currentTime < p.arrivalTime) {
-                currentTime = p.arrivalTime;
+            if (currentTime < table.arrival[i]) {
+                currentTime = table.arrival[i];
             }
 
-            int waitingTime = currentTime - p.arrivalTime;
-            int turnaroundTime = waitingTime + p.burstTime;
+            timeline.add(i, currentTime, currentTime + table.burst[i]);
+            currentTime += table.burst[i];
+            completion[i] = currentTime;
+        }
+
+        return new ScheduleResult("Priority Scheduling", table, completion, order, timeline);
+    }
+
+    /**
+     * Preemptive Priority Scheduling over a list; see {@link #schedulePreemptive(ProcessTable)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     */
+    public static void schedulePreemptive(List<Process> processes) {
+        schedulePreemptive(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Preemptive Priority Scheduling: prints the same report as {@link #schedule(ProcessTable)}.
+     *
+     * @param table processes to schedule (not modified)
+     */
+    public static void schedulePreemptive(ProcessTable table) {
+        if (table.isEmpty()) {
+            System.out.println("\nPreemptive Priority Scheduling: No processes to schedule.");
+            return;
+        }
+        ScheduleRenderer.print(runPreemptive(table));
+    }
+
+    /**
+     * Simulates preemptive priority scheduling on the {@link EventSimulator} kernel,
+     * without producing any output.
+     *
+     * @param table processes to schedule (not modified, safe to share between threads once trimmed)
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult runPreemptive(ProcessTable table) {
+        table.trim();
+        Preemptive sim = new Preemptive(table.arrival, table.burst, table.priority);
+        sim.run();
+        return new ScheduleResult("Preemptive Priority Scheduling", table, sim.completion(), null, sim.timeline());
+    }
+
+    /**
+     * Preemptive priority policy: ready queue keyed on (priority, arrival rank); an arrival
+     * preempts the running process only if its priority number is strictly lower.
+     */
+    static class Preemptive extends EventSimulator {
 
-            executionOrder.add("P" + p.pid);
-            currentTime += p.burstTime;
-            timestamps.add(currentTime);
+        private final int[] priority;
+        private final LongHeap ready = new LongHeap(64);
 
-            totalWT += waitingTime;
-            totalTAT += turnaroundTime;
+        Preemptive(int[] arrival, int[] burst, int[] priority) {
+            super(arrival, burst);
+            this.priority = priority;
+        }
 
-            System.out.println("P" + p.pid + " -> WT: " + waitingTime + ", TAT: " + turnaroundTime);
+        @Override
+        protected void enqueue(int p) {
+            ready.push(LongHeap.pack(priority[p], rank[p]));
         }
 
-        // Render Gantt chart
-        GanttChart.display(executionOrder, timestamps);
+        @Override
+        protected int pollNext() {
+            return ready.isEmpty() ? -1 : byArrival[LongHeap.index(ready.pop())];
+        }
 
-        // Print averages
-        int n = processes.size();
-        System.out.println("Average WT: " + (double) totalWT / n);
-        System.out.println("Average TAT: " + (double) totalTAT / n);
+        @Override
+        protected boolean shouldPreempt(int arriving, int running) {
+            return priority[arriving] < priority[running];
+        }
     }
 }
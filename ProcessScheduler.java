@@ -1,12 +1,13 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Reads process data from a file and creates a list of {@code Process} objects
- * for CPU scheduling simulations.
+ * (or a columnar {@link ProcessTable}) for CPU scheduling simulations.
  */
 public class ProcessScheduler {
 
@@ -51,4 +52,44 @@ public class ProcessScheduler {
 
         return processes;
     }
+
+    /**
+     * Loads a process trace (same format as {@link #readProcesses(String)}) into a columnar table.
+     * Uses the memory-mapped {@link TraceLoader}, so large traces load at close to disk speed
+     * without creating objects per row. Unlike {@code readProcesses}, I/O errors are reported
+     * to the caller.
+     *
+     * @param filename the path to the file containing process data
+     * @return a table with one row per process, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static ProcessTable loadTable(String filename) throws IOException {
+        return TraceLoader.loadTable(Paths.get(filename));
+    }
+
+    /**
+     * Streams a process trace to {@code sink} one row at a time, so the consumer can start
+     * before the whole file has been read.
+     *
+     * @param filename the path to the file containing process data
+     * @param sink     receives every well-formed row in file order
+     * @return the number of rows delivered
+     * @throws IOException if the file cannot be read
+     */
+    public static long streamProcesses(String filename, ProcessSink sink) throws IOException {
+        return TraceLoader.load(Paths.get(filename), sink);
+    }
+
+    /**
+     * Loads a binary trace written by {@link BinaryTrace} (see there for the format).
+     * The file is memory-mapped and its columns are bulk-copied, so loading costs about
+     * the same as a memcpy of the data regardless of how many processes it holds.
+     *
+     * @param filename the path to the binary trace
+     * @return a table with one row per process, in file order
+     * @throws IOException if the file cannot be read or is not a valid trace
+     */
+    public static ProcessTable readBinary(String filename) throws IOException {
+        return BinaryTrace.map(Paths.get(filename)).toTable();
+    }
 }
@@ -0,0 +1,17 @@
+/**
+ * Receives processes one row at a time, e.g. from a trace loader.
+ * {@link ProcessTable} is a sink, so a loader can fill a table directly; a scheduler
+ * or statistics pass can also consume rows as they are parsed.
+ */
+public interface ProcessSink {
+
+    /**
+     * Accepts one process.
+     *
+     * @param pid         unique process ID
+     * @param arrivalTime time the process becomes ready
+     * @param burstTime   total CPU time needed
+     * @param priority    priority level (lower value = higher priority)
+     */
+    void add(int pid, int arrivalTime, int burstTime, int priority);
+}
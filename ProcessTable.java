@@ -0,0 +1,167 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays process table: one {@code int[]} column per {@link Process} field.
+ *
+ * Row {@code i} of every column describes the same process. Compared with a
+ * {@code List<Process>}, there is no per-object header or pointer to chase, copying is
+ * a handful of array clones, and sorting is done on an index {@link Permutation}
+ * rather than by moving rows around.
+ *
+ * The columns can also be parked off-heap in a direct {@link ByteBuffer}
+ * (see {@link #toOffHeap()} / {@link #fromOffHeap(ByteBuffer)}), laid out column after column.
+ */
+public class ProcessTable implements ProcessSink {
+
+    /** Number of int columns in the off-heap layout (pid, arrival, burst, priority, remaining). */
+    static final int COLUMNS = 5;
+
+    int[] pid;
+    int[] arrival;
+    int[] burst;
+    int[] priority;
+    int[] remaining;
+
+    private int size;
+
+    /** Creates an empty table with room for {@code capacity} rows before it has to grow. */
+    public ProcessTable(int capacity) {
+        int cap = Math.max(1, capacity);
+        pid = new int[cap];
+        arrival = new int[cap];
+        burst = new int[cap];
+        priority = new int[cap];
+        remaining = new int[cap];
+    }
+
+    /** Builds a table from a list of processes (row i = processes.get(i)). */
+    public static ProcessTable of(List<Process> processes) {
+        ProcessTable table = new ProcessTable(processes.size());
+        for (Process p : processes) {
+            table.add(p.pid, p.arrivalTime, p.burstTime, p.priority);
+            table.remaining[table.size - 1] = p.remainingTime;
+        }
+        return table;
+    }
+
+    /**
+     * Wraps existing columns (all of the same length) without copying them.
+     * The remaining-time column starts as a copy of the burst column.
+     */
+    static ProcessTable ofColumns(int[] pid, int[] arrival, int[] burst, int[] priority) {
+        ProcessTable t = new ProcessTable(0);
+        t.pid = pid;
+        t.arrival = arrival;
+        t.burst = burst;
+        t.priority = priority;
+        t.remaining = burst.clone();
+        t.size = pid.length;
+        return t;
+    }
+
+    /** Appends a process; its remaining time starts at its burst time. */
+    @Override
+    public void add(int pid, int arrivalTime, int burstTime, int priority) {
+        if (size == this.pid.length) {
+            grow(Math.max(8, size << 1));
+        }
+        this.pid[size] = pid;
+        this.arrival[size] = arrivalTime;
+        this.burst[size] = burstTime;
+        this.priority[size] = priority;
+        this.remaining[size] = burstTime;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Independent copy (column clones trimmed to {@link #size()}). */
+    public ProcessTable copy() {
+        ProcessTable t = new ProcessTable(0);
+        t.pid = Arrays.copyOf(pid, size);
+        t.arrival = Arrays.copyOf(arrival, size);
+        t.burst = Arrays.copyOf(burst, size);
+        t.priority = Arrays.copyOf(priority, size);
+        t.remaining = Arrays.copyOf(remaining, size);
+        t.size = size;
+        return t;
+    }
+
+    /** Shrinks the columns to exactly {@link #size()} so they can be handed to the engines as-is. */
+    public ProcessTable trim() {
+        if (pid.length != size) {
+            grow(size);
+        }
+        return this;
+    }
+
+    /** Row indices ordered by arrival time (ties: row order). */
+    public int[] byArrival() {
+        return Permutation.sortedBy(arrival, size);
+    }
+
+    /** Row indices ordered by priority, then arrival time, then row order. */
+    public int[] byPriority() {
+        return Permutation.sortedBy(priority, arrival, size);
+    }
+
+    /** Converts back to {@link Process} objects (row order preserved). */
+    public List<Process> toList() {
+        List<Process> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Process p = new Process(pid[i], arrival[i], burst[i], priority[i]);
+            p.remainingTime = remaining[i];
+            list.add(p);
+        }
+        return list;
+    }
+
+    /**
+     * Copies the columns into a direct (off-heap) buffer in native byte order:
+     * all pids, then all arrivals, bursts, priorities and remaining times.
+     */
+    public ByteBuffer toOffHeap() {
+        ByteBuffer buf = ByteBuffer.allocateDirect(size * COLUMNS * Integer.BYTES)
+                                   .order(ByteOrder.nativeOrder());
+        IntBuffer ints = buf.asIntBuffer();
+        ints.put(pid, 0, size)
+            .put(arrival, 0, size)
+            .put(burst, 0, size)
+            .put(priority, 0, size)
+            .put(remaining, 0, size);
+        return buf;
+    }
+
+    /** Rebuilds a table from a buffer written by {@link #toOffHeap()}. */
+    public static ProcessTable fromOffHeap(ByteBuffer buf) {
+        IntBuffer ints = buf.duplicate().order(buf.order()).asIntBuffer();
+        int n = ints.remaining() / COLUMNS;
+        ProcessTable t = new ProcessTable(n);
+        ints.get(t.pid, 0, n)
+            .get(t.arrival, 0, n)
+            .get(t.burst, 0, n)
+            .get(t.priority, 0, n)
+            .get(t.remaining, 0, n);
+        t.size = n;
+        return t.trim();
+    }
+
+    private void grow(int cap) {
+        pid = Arrays.copyOf(pid, cap);
+        arrival = Arrays.copyOf(arrival, cap);
+        burst = Arrays.copyOf(burst, cap);
+        priority = Arrays.copyOf(priority, cap);
+        remaining = Arrays.copyOf(remaining, cap);
+    }
+}
@@ -0,0 +1,195 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A page-reference string read in fixed-size chunks, so traces far larger than the heap can
+ * be replayed in constant memory (see {@link PageReplacement#run(ReplacementPolicy,
+ * ReferenceTrace, long, PageReplacement.Progress)}).
+ *
+ * Two sources are supported:
+ * <ul>
+ *   <li>{@link #of(IntStream)}: any {@code IntStream}, e.g. a generator or a parsed file;</li>
+ *   <li>{@link #map(Path)}: a file of packed little-endian 32-bit page numbers, with no
+ *       header, memory-mapped in 64 MB windows and bulk-copied out of the mapping, so files
+ *       of any size are fine.</li>
+ * </ul>
+ * {@link #write(IntStream, Path)} produces the packed format, and {@code main} converts text.
+ *
+ * A trace is read once, front to back, and is not thread-safe. Close it when done (a mapped
+ * trace holds its file open until then, however far it was read).
+ */
+public abstract class ReferenceTrace implements Closeable {
+
+    /** References handed out per {@link #read(int[])} by the built-in consumers. */
+    public static final int CHUNK = 1 << 16;
+
+    /** Bytes mapped at a time. */
+    private static final long WINDOW = 64L << 20;
+
+    /**
+     * Fills {@code buffer} from the front with the next references.
+     *
+     * @return number of references read; 0 once the trace is exhausted
+     */
+    public abstract int read(int[] buffer) throws IOException;
+
+    /** Total number of references if known up front, otherwise -1. */
+    public long size() {
+        return -1;
+    }
+
+    /** Releases the trace's file, if any. */
+    @Override
+    public void close() throws IOException {
+    }
+
+    /** A trace over the elements of {@code references} (closing it does not close the stream). */
+    public static ReferenceTrace of(IntStream references) {
+        PrimitiveIterator.OfInt it = references.iterator();
+        return new ReferenceTrace() {
+            @Override
+            public int read(int[] buffer) {
+                int n = 0;
+                while (n < buffer.length && it.hasNext()) buffer[n++] = it.nextInt();
+                return n;
+            }
+        };
+    }
+
+    /**
+     * A trace over a packed file, mapped lazily one window at a time.
+     *
+     * @throws IOException if the file cannot be opened or its length is not a multiple of 4
+     */
+    public static ReferenceTrace map(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        long bytes = ch.size();
+        if ((bytes & 3) != 0) {
+            ch.close();
+            throw new IOException("Packed reference file length is not a multiple of 4: " + file);
+        }
+        return new ReferenceTrace() {
+            private long position;       // byte offset of the current window
+            private IntBuffer window;
+
+            @Override
+            public int read(int[] buffer) throws IOException {
+                int n = 0;
+                while (n < buffer.length) {
+                    if (window == null || !window.hasRemaining()) {
+                        if (position >= bytes) break;
+                        long length = Math.min(WINDOW, bytes - position);
+                        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, position, length);
+                        window = map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                        position += length;
+                    }
+                    int k = Math.min(buffer.length - n, window.remaining());
+                    window.get(buffer, n, k);
+                    n += k;
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                ch.close(); // mappings already handed out stay valid
+            }
+
+            @Override
+            public long size() {
+                return bytes >>> 2;
+            }
+        };
+    }
+
+    /**
+     * Writes {@code references} as packed little-endian ints, a chunk at a time.
+     *
+     * @return number of references written
+     */
+    public static long write(IntStream references, Path file) throws IOException {
+        int[] chunk = new int[CHUNK];
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4 * CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        long written = 0;
+        try (ReferenceTrace source = of(references);
+             FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            int n;
+            while ((n = source.read(chunk)) > 0) {
+                bytes.clear();
+                bytes.asIntBuffer().put(chunk, 0, n);
+                bytes.limit(4 * n);
+                while (bytes.hasRemaining()) ch.write(bytes);
+                written += n;
+            }
+        }
+        return written;
+    }
+
+    /** Page numbers from a text file of whitespace-separated integers, parsed lazily. */
+    public static IntStream text(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        Spliterator.OfInt tokens = new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                try {
+                    int c = in.read();
+                    while (c != -1 && !(c >= '0' && c <= '9') && c != '-') c = in.read();
+                    if (c == -1) return false;
+                    boolean negative = c == '-';
+                    if (negative) c = in.read();
+                    int value = 0;
+                    while (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        c = in.read();
+                    }
+                    action.accept(negative ? -value : value);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.intStream(tokens, false).onClose(() -> {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Converts a text reference string to the packed format.
+     *
+     * Usage: {@code java ReferenceTrace <pages.txt> <pages.bin>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java ReferenceTrace <pages.txt> <pages.bin>");
+            System.exit(2);
+        }
+        try (IntStream pages = text(Paths.get(args[0]))) {
+            long n = write(pages, Paths.get(args[1]));
+            System.out.println("Wrote " + n + " references to " + args[1]);
+        }
+    }
+}
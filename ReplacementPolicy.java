@@ -0,0 +1,41 @@
+/**
+ * A page replacement policy over a fixed number of frames, driven one reference at a time.
+ *
+ * Implementations keep their state in primitive arrays and allocate nothing per reference,
+ * so a policy can be run over reference strings of any length; printing is left to the
+ * caller (see {@link PageReplacement#run}).
+ */
+public interface ReplacementPolicy {
+
+    /**
+     * References {@code page}, loading it (and evicting a victim if memory is full) when it
+     * is not resident.
+     *
+     * @return {@code true} on a page fault
+     */
+    boolean access(int page);
+
+    /** Page faults so far. */
+    long faults();
+
+    /** Page evicted by the most recent fault, or -1 if that fault filled a free frame. */
+    int lastEvicted();
+
+    /** Frame (0-based) holding {@code page}, or -1 if it is not resident. */
+    int frameOf(int page);
+
+    /** Number of frames. */
+    int frames();
+
+    /** Number of resident pages. */
+    int resident();
+
+    /**
+     * Copies the resident pages into {@code out} in the policy's own order (for FIFO oldest
+     * first, for LRU least recently used first) and returns how many there are.
+     */
+    int snapshot(int[] out);
+
+    /** Short name for reports, e.g. "LRU". */
+    String name();
+}
@@ -3,77 +3,127 @@ import java.util.*;
 /**
  * Implements the Round Robin CPU scheduling algorithm.
  * Each process gets a fixed time slice (quantum) in cyclic order.
+ * {@link #schedule(ProcessTable, int)} treats every process as ready at t=0;
+ * {@link #scheduleByArrival(ProcessTable, int)} admits processes as they arrive.
  */
 public class RoundRobin {
     /**
-     * Runs Round Robin scheduling and prints:
-     * - The Gantt chart (execution timeline).
-     * - Waiting Time (WT) and Turnaround Time (TAT) per process.
-     * - Average WT and TAT.
+     * Runs Round Robin scheduling; see {@link #schedule(ProcessTable, int)}.
+     * The list (including each process's remainingTime) is not modified.
      *
      * @param processes list of processes to schedule
      * @param quantum   fixed CPU time slice for each process
      */
     public static void schedule(List<Process> processes, int quantum) {
-        if (processes == null || processes.isEmpty()) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes), quantum);
+    }
+
+    /**
+     * Runs Round Robin scheduling over a columnar process table and prints:
+     * - The Gantt chart (execution timeline).
+     * - Waiting Time (WT) and Turnaround Time (TAT) per process.
+     * - Average WT and TAT.
+     *
+     * @param table   processes to schedule (not modified)
+     * @param quantum fixed CPU time slice for each process
+     */
+    public static void schedule(ProcessTable table, int quantum) {
+        if (table.isEmpty()) {
             System.out.println("\nRound Robin (Quantum = " + quantum + "): No processes to schedule.");
             return;
         }
+        ScheduleRenderer.print(run(table, quantum));
+    }
+
+    /**
+     * Simulates Round Robin with every process ready at t=0, without producing any output.
+     *
+     * @param table   processes to schedule (not modified; the remaining-time column is cloned)
+     * @param quantum fixed CPU time slice for each process
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult run(ProcessTable table, int quantum) {
+        int n = table.trim().size();
 
-        // Ready queue (initially contains all processes in the given order)
-        Queue<Process> readyQueue = new LinkedList<>(processes);
+        // Ready queue as a ring buffer of row indices (initially every row, in table order)
+        int[] ring = new int[Math.max(1, n)];
+        for (int i = 0; i < n; i++) ring[i] = i;
+        int head = 0, count = n;
 
+        int[] remaining = table.remaining.clone();
         int currentTime = 0;
-        long totalWT = 0, totalTAT = 0;
 
         // Tracks when each process finishes
-        Map<Integer, Integer> completionTime = new HashMap<>();
+        int[] completionTime = new int[n];
 
         // For Gantt chart visualization
-        List<String> executionOrder = new ArrayList<>();
-        List<Integer> timestamps = new ArrayList<>();
-        timestamps.add(currentTime);
-
-        System.out.println("\nRound Robin (Quantum = " + quantum + ") Gantt Chart:");
+        Timeline timeline = new Timeline(n);
 
         // Main Round Robin loop
-        while (!readyQueue.isEmpty()) {
-            Process p = readyQueue.poll();
+        while (count > 0) {
+            int p = ring[head];
+            head = (head + 1) % n;
+            count--;
 
             // Time to run in this slice
-            int runTime = Math.min(p.remainingTime, quantum);
+            int runTime = Math.min(remaining[p], quantum);
 
-            executionOrder.add("P" + p.pid);
+            timeline.add(p, currentTime, currentTime + runTime);
             currentTime += runTime;
-            timestamps.add(currentTime);
-            p.remainingTime -= runTime;
+            remaining[p] -= runTime;
 
-            if (p.remainingTime > 0) {
+            if (remaining[p] > 0) {
                 // Still has work — put it back at the end of the queue
-                readyQueue.add(p);
+                ring[(head + count++) % n] = p;
             } else {
                 // Done — remember its completion time
-                completionTime.put(p.pid, currentTime);
+                completionTime[p] = currentTime;
             }
         }
 
-        // Compute and print per-process metrics
-        for (Process p : processes) {
-            int tat = completionTime.get(p.pid) - p.arrivalTime; // Turnaround time
-            int wt = tat - p.burstTime;                          // Waiting time
+        return new ScheduleResult("Round Robin (Quantum = " + quantum + ")", table, completionTime, null, timeline);
+    }
 
-            totalWT += wt;
-            totalTAT += tat;
+    /**
+     * Arrival-aware Round Robin over a list; see {@link #scheduleByArrival(ProcessTable, int)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     * @param quantum   fixed CPU time slice for each process
+     */
+    public static void scheduleByArrival(List<Process> processes, int quantum) {
+        scheduleByArrival(processes == null ? new ProcessTable(0) : ProcessTable.of(processes), quantum);
+    }
 
-            System.out.println("P" + p.pid + " -> WT: " + wt + ", TAT: " + tat);
+    /**
+     * Arrival-aware Round Robin: prints the same report as {@link #schedule(ProcessTable, int)}.
+     *
+     * @param table   processes to schedule (not modified)
+     * @param quantum fixed CPU time slice for each process
+     */
+    public static void scheduleByArrival(ProcessTable table, int quantum) {
+        if (table.isEmpty()) {
+            System.out.println("\nRound Robin (Quantum = " + quantum + "): No processes to schedule.");
+            return;
         }
+        ScheduleRenderer.print(runByArrival(table, quantum));
+    }
+
+    /**
+     * Simulates arrival-aware Round Robin (a process joins the ready queue at its arrival time)
+     * without producing any output. The simulation is done by {@link RoundRobinEngine}.
+     *
+     * @param table   processes to schedule (not modified, safe to share between threads once trimmed)
+     * @param quantum fixed CPU time slice for each process
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult runByArrival(ProcessTable table, int quantum) {
+        int n = table.trim().size();
 
-        // Render Gantt chart
-        GanttChart.display(executionOrder, timestamps);
+        int[] completion = new int[n];
+        Timeline timeline = new Timeline();
+        RoundRobinEngine.run(table.arrival, table.burst, quantum, completion, timeline);
 
-        // Print averages
-        int n = processes.size();
-        System.out.println("Average WT: " + (double) totalWT / n);
-        System.out.println("Average TAT: " + (double) totalTAT / n);
+        return new ScheduleResult("Round Robin by Arrival (Quantum = " + quantum + ")", table, completion, null,
+                                  timeline);
     }
 }
@@ -0,0 +1,89 @@
+/**
+ * Arrival-aware Round Robin over primitive columns.
+ *
+ * Processes enter the ready queue when they arrive (not all at t=0). The ready queue is
+ * an {@code int[]} ring buffer of process indices; since a process is in the queue at
+ * most once, a ring of n slots never overflows. Processes that arrive while a slice is
+ * running are queued ahead of the process whose slice just ended.
+ *
+ * When only one process is runnable, all the quanta it would run back-to-back before the
+ * next arrival are charged in a single step (closed form), so a long solo burst costs
+ * O(1) instead of burst/quantum iterations.
+ */
+public final class RoundRobinEngine {
+
+    private RoundRobinEngine() { }
+
+    /**
+     * Simulates Round Robin.
+     *
+     * @param arrival    arrival time per process
+     * @param burst      burst time per process
+     * @param quantum    time slice (must be positive)
+     * @param completion out: completion time per process index (length n)
+     * @param timeline   out: execution segments, or {@code null} to skip recording them
+     */
+    public static void run(int[] arrival, int[] burst, int quantum, int[] completion, Timeline timeline) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        }
+
+        int n = arrival.length;
+        int[] byArrival = Permutation.sortedBy(arrival, n);
+        int[] remaining = burst.clone();
+
+        int[] ring = new int[Math.max(1, n)];
+        int head = 0, count = 0;
+
+        long time = 0;
+        int next = 0;      // cursor into byArrival: first process not yet admitted
+        int done = 0;
+
+        while (done < n) {
+            // Nothing runnable: the CPU idles until the next arrival.
+            if (count == 0 && time < arrival[byArrival[next]]) {
+                time = arrival[byArrival[next]];
+            }
+            while (next < n && arrival[byArrival[next]] <= time) {
+                ring[(head + count++) % ring.length] = byArrival[next++];
+            }
+
+            int p = ring[head];
+            head = (head + 1) % ring.length;
+            count--;
+
+            long run;
+            if (remaining[p] <= quantum) {
+                run = remaining[p];
+            } else if (count > 0) {
+                run = quantum;
+            } else if (next == n) {
+                // Solo and nothing else will ever arrive: run to completion.
+                run = remaining[p];
+            } else {
+                // Solo until the first quantum boundary at or after the next arrival.
+                long gap = arrival[byArrival[next]] - time;
+                long slices = Math.max(1, (gap + quantum - 1) / quantum);
+                run = Math.min(remaining[p], slices * quantum);
+            }
+
+            if (timeline != null) {
+                timeline.add(p, (int) time, (int) (time + run));
+            }
+            time += run;
+            remaining[p] -= (int) run;
+
+            // Arrivals during the slice queue up before the preempted process.
+            while (next < n && arrival[byArrival[next]] <= time) {
+                ring[(head + count++) % ring.length] = byArrival[next++];
+            }
+
+            if (remaining[p] > 0) {
+                ring[(head + count++) % ring.length] = p;
+            } else {
+                completion[p] = (int) time;
+                done++;
+            }
+        }
+    }
+}
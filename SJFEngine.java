@@ -0,0 +1,55 @@
+/**
+ * Event-driven, non-preemptive Shortest Job First.
+ *
+ * Processes are admitted in arrival order through a cursor over an arrival-sorted
+ * permutation. Every admitted process goes into a min-heap keyed on burst time
+ * (ties: earlier arrival, then input order). When the CPU frees up, the shortest
+ * ready job runs to completion; if nothing is ready the clock jumps to the next
+ * arrival. Each process is pushed and popped once, so the whole run is O(n log n)
+ * and works purely on primitive columns — no per-process objects or labels.
+ */
+public final class SJFEngine {
+
+    private SJFEngine() { }
+
+    /**
+     * Simulates SJF over parallel columns.
+     *
+     * @param arrival    arrival time per process
+     * @param burst      burst time per process
+     * @param order      out: process indices in dispatch order (length n)
+     * @param completion out: completion time per process index (length n)
+     * @throws ArithmeticException if a completion time does not fit in an int
+     */
+    public static void run(int[] arrival, int[] burst, int[] order, int[] completion) {
+        int n = arrival.length;
+        int[] byArrival = Permutation.sortedBy(arrival, n);
+
+        // Heap entries are (burst, arrival rank); the rank maps back through byArrival.
+        LongHeap ready = new LongHeap(Math.min(n, 1 << 16));
+
+        long time = 0;     // long so that huge traces cannot overflow mid-run
+        int next = 0;      // cursor into byArrival: first process not yet admitted
+        int dispatched = 0;
+
+        while (dispatched < n) {
+            // CPU idle and nothing ready: jump straight to the next arrival.
+            if (ready.isEmpty() && time < arrival[byArrival[next]]) {
+                time = arrival[byArrival[next]];
+            }
+
+            // Admit everything that has arrived by now.
+            while (next < n && arrival[byArrival[next]] <= time) {
+                ready.push(LongHeap.pack(burst[byArrival[next]], next));
+                next++;
+            }
+
+            // Run the shortest ready job to completion.
+            int p = byArrival[LongHeap.index(ready.pop())];
+            time += burst[p];
+            if (time > Integer.MAX_VALUE) throw new ArithmeticException("Simulated time overflows an int");
+            completion[p] = (int) time;
+            order[dispatched++] = p;
+        }
+    }
+}
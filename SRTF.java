@@ -0,0 +1,72 @@
+import java.util.*;
+
+/**
+ * Implements Shortest-Remaining-Time-First (preemptive SJF).
+ * - The ready process with the least remaining CPU time always runs.
+ * - A newly arrived process preempts the running one if it needs strictly less time
+ *   than the running process has left.
+ *
+ * Built on the {@link EventSimulator} kernel, so time jumps from event to event.
+ */
+public class SRTF extends EventSimulator {
+
+    // Ready queue keyed on (remaining time, arrival rank)
+    private final LongHeap ready = new LongHeap(64);
+
+    SRTF(int[] arrival, int[] burst) {
+        super(arrival, burst);
+    }
+
+    @Override
+    protected void enqueue(int p) {
+        ready.push(LongHeap.pack(remaining[p], rank[p]));
+    }
+
+    @Override
+    protected int pollNext() {
+        return ready.isEmpty() ? -1 : byArrival[LongHeap.index(ready.pop())];
+    }
+
+    @Override
+    protected boolean shouldPreempt(int arriving, int running) {
+        return remaining[arriving] < remainingNow(running);
+    }
+
+    /**
+     * Runs SRTF over a list; see {@link #schedule(ProcessTable)}.
+     *
+     * @param processes list of processes to schedule (not modified)
+     */
+    public static void schedule(List<Process> processes) {
+        schedule(processes == null ? new ProcessTable(0) : ProcessTable.of(processes));
+    }
+
+    /**
+     * Runs SRTF and prints:
+     * - Waiting Time (WT) and Turnaround Time (TAT) per process.
+     * - A Gantt chart of the execution segments.
+     * - Average WT and TAT.
+     *
+     * @param table processes to schedule (not modified)
+     */
+    public static void schedule(ProcessTable table) {
+        if (table.isEmpty()) {
+            System.out.println("\nSRTF: No processes to schedule.");
+            return;
+        }
+        ScheduleRenderer.print(run(table));
+    }
+
+    /**
+     * Simulates SRTF without producing any output.
+     *
+     * @param table processes to schedule (not modified, safe to share between threads once trimmed)
+     * @return per-process metrics and timeline
+     */
+    public static ScheduleResult run(ProcessTable table) {
+        table.trim();
+        SRTF sim = new SRTF(table.arrival, table.burst);
+        sim.run();
+        return new ScheduleResult("SRTF", table, sim.completion(), null, sim.timeline());
+    }
+}
@@ -0,0 +1,55 @@
+import java.io.PrintStream;
+
+/**
+ * Prints a {@link ScheduleResult} in the simulator's console format:
+ * a header, WT/TAT per process, the Gantt chart and the averages.
+ *
+ * This is the only place scheduling output is formatted; the schedulers themselves
+ * just return results. Output is assembled in a buffer and written in large chunks.
+ */
+public class ScheduleRenderer {
+
+    private static final int FLUSH_AT = 1 << 16;
+
+    /**
+     * Prints the full report for one run to stdout.
+     *
+     * @param result the run to report
+     */
+    public static void print(ScheduleResult result) {
+        print(result, new GanttRenderer(), System.out);
+    }
+
+    /**
+     * Prints the report for one run.
+     *
+     * @param result the run to report
+     * @param gantt  chart renderer (e.g. {@code new GanttRenderer().summarised(20)} for huge runs)
+     * @param out    destination
+     */
+    public static void print(ScheduleResult result, GanttRenderer gantt, PrintStream out) {
+        StringBuilder sb = new StringBuilder(1 << 12);
+        sb.append('\n').append(result.algorithm).append(" Gantt Chart:\n");
+
+        // Per-process report, in the scheduler's reporting order
+        int n = result.size();
+        for (int k = 0; k < n; k++) {
+            int i = result.reportOrder == null ? k : result.reportOrder[k];
+            sb.append('P').append(result.pid[i])
+              .append(" -> WT: ").append(result.waiting[i])
+              .append(", TAT: ").append(result.turnaround[i]).append('\n');
+            if (sb.length() >= FLUSH_AT) {
+                out.append(sb);
+                sb.setLength(0);
+            }
+        }
+        out.append(sb);
+
+        // Render Gantt chart
+        gantt.print(result.timeline, result.pid, out);
+
+        // Print averages
+        out.println("Average WT: " + result.averageWT());
+        out.println("Average TAT: " + result.averageTAT());
+    }
+}
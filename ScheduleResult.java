@@ -0,0 +1,88 @@
+/**
+ * Outcome of one scheduling run, with no formatting attached.
+ *
+ * Per-process metrics are primitive arrays indexed by the row of the scheduler's input
+ * {@link ProcessTable}; the execution history is a run-length {@link Timeline}; the
+ * aggregates are computed once on construction. Printing is done separately by
+ * {@link ScheduleRenderer}, so simulations can run headless at full speed.
+ */
+public class ScheduleResult {
+
+    /** Human-readable algorithm name used in reports, e.g. "Round Robin (Quantum = 2)". */
+    public final String algorithm;
+
+    /** Process IDs per row (the input table's pid column; not copied, do not modify). */
+    public final int[] pid;
+
+    /** Completion, waiting and turnaround time per row. */
+    public final int[] completion;
+    public final int[] waiting;
+    public final int[] turnaround;
+
+    /**
+     * Row order in which per-process lines are reported (e.g. dispatch order for the
+     * non-preemptive schedulers), or {@code null} for table order.
+     */
+    public final int[] reportOrder;
+
+    /**
+     * Execution segments; segment indices are table rows. {@code null} for multi-core runs,
+     * which keep one timeline per core (see {@link MultiCoreScheduler.Result#cores}).
+     */
+    public final Timeline timeline;
+
+    public final long totalWT;
+    public final long totalTAT;
+    public final int maxTAT;
+    /** Completion time of the last process. */
+    public final int makespan;
+
+    /**
+     * Derives waiting and turnaround times from completion times.
+     *
+     * @param algorithm   name used in reports
+     * @param table       the scheduler's input
+     * @param completion  completion time per row
+     * @param reportOrder reporting order of rows, or {@code null} for table order
+     * @param timeline    execution segments, or {@code null} for multi-core runs
+     */
+    public ScheduleResult(String algorithm, ProcessTable table, int[] completion, int[] reportOrder,
+                          Timeline timeline) {
+        int n = table.size();
+        this.algorithm = algorithm;
+        this.pid = table.pid;
+        this.completion = completion;
+        this.reportOrder = reportOrder;
+        this.timeline = timeline;
+        this.waiting = new int[n];
+        this.turnaround = new int[n];
+
+        long wt = 0, tat = 0;
+        int max = 0, last = 0;
+        for (int i = 0; i < n; i++) {
+            turnaround[i] = completion[i] - table.arrival[i];
+            waiting[i] = turnaround[i] - table.burst[i];
+            wt += waiting[i];
+            tat += turnaround[i];
+            max = Math.max(max, turnaround[i]);
+            last = Math.max(last, completion[i]);
+        }
+        this.totalWT = wt;
+        this.totalTAT = tat;
+        this.maxTAT = max;
+        this.makespan = last;
+    }
+
+    /** Number of processes. */
+    public int size() {
+        return completion.length;
+    }
+
+    public double averageWT() {
+        return totalWT / (double) size();
+    }
+
+    public double averageTAT() {
+        return totalTAT / (double) size();
+    }
+}
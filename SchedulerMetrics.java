@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * Tail-latency and utilization figures for any finished schedule.
+ *
+ * Everything is derived after the fact from a {@link ScheduleResult} (or a
+ * {@link MultiCoreScheduler.Result}) and its input table, so it works for every scheduler and
+ * costs nothing unless asked for:
+ * <ul>
+ *   <li>response time (first dispatch minus arrival), waiting and turnaround times, each in
+ *       a {@link Histogram} for p50/p99/p99.9/max;</li>
+ *   <li>context switches — dispatches of a different process than the one the core ran last,
+ *       with idle gaps in between not counted as a process;</li>
+ *   <li>idle time and CPU utilization over [0, makespan);</li>
+ *   <li>per fixed-size window: utilization, and throughput as completions per time unit.</li>
+ * </ul>
+ *
+ * For profiling long simulations with standard tooling, {@link #recordDispatches(boolean)}
+ * emits a JFR {@link DispatchEvent} for every slice any scheduler records, through the
+ * {@link Timeline.Listener} hook. While it is off, the hook costs one field read per slice.
+ *
+ * Usage:
+ * <pre>
+ * java SchedulerMetrics [processes.txt] [--window W] [--rows N] [--jfr recording.jfr]
+ * </pre>
+ * runs every {@link Sweep.Algorithm} and prints its metrics; with {@code --jfr} the dispatch
+ * events of the whole run are recorded to the given file.
+ */
+public class SchedulerMetrics {
+
+    /** JFR event for one slice of CPU time given to a process. */
+    @Name("scheduler.Dispatch")
+    @Label("Dispatch")
+    @Category("Scheduler")
+    @Description("A process ran on a simulated CPU for one slice")
+    @StackTrace(false)
+    static class DispatchEvent extends Event {
+        @Label("Process Index")
+        int process;
+
+        @Label("Start")
+        @Description("Simulated start time")
+        int start;
+
+        @Label("End")
+        @Description("Simulated end time (exclusive)")
+        int end;
+    }
+
+    public final String algorithm;
+    public final Histogram response = new Histogram();
+    public final Histogram waiting = new Histogram();
+    public final Histogram turnaround = new Histogram();
+    public final int cores;
+    public final long contextSwitches;
+    public final long busy;
+    public final int origin;            // start of the measured span: min(0, first dispatch)
+    public final int makespan;
+    public final int window;
+    private final long[] windowBusy;
+    private final int[] windowCompletions;
+
+    private SchedulerMetrics(String algorithm, ProcessTable table, ScheduleResult result,
+                             Timeline[] timelines, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        int n = result.size();
+        this.algorithm = algorithm;
+        this.cores = timelines.length;
+        this.window = window;
+        this.makespan = result.makespan;
+
+        // First dispatch per process, switches, and the span's origin
+        int[] firstStart = new int[n];
+        Arrays.fill(firstStart, Integer.MAX_VALUE);
+        long switches = 0, busyTime = 0;
+        int first = 0;
+        for (Timeline t : timelines) {
+            for (int i = 0; i < t.size(); i++) {
+                int p = t.index(i);
+                firstStart[p] = Math.min(firstStart[p], t.start(i));
+                busyTime += t.end(i) - t.start(i);
+                if (i > 0 && t.index(i - 1) != p) switches++;
+            }
+            if (t.size() > 0) first = Math.min(first, t.start(0));
+        }
+        this.contextSwitches = switches;
+        this.busy = busyTime;
+        this.origin = first;
+
+        for (int i = 0; i < n; i++) {
+            turnaround.record(result.turnaround[i]);
+            waiting.record(result.waiting[i]);
+            if (firstStart[i] != Integer.MAX_VALUE) {
+                response.record(firstStart[i] - table.arrival[i]);
+            }
+        }
+
+        // Busy time per window: each segment is spread over the windows it overlaps.
+        int windows = (int) Math.max(1, ((long) makespan - origin + window - 1) / window);
+        windowBusy = new long[windows];
+        windowCompletions = new int[windows];
+        for (Timeline t : timelines) {
+            for (int i = 0; i < t.size(); i++) {
+                long from = t.start(i) - (long) origin, to = t.end(i) - (long) origin;
+                for (long w = from / window; w * window < to; w++) {
+                    windowBusy[(int) w] += Math.min(to, (w + 1) * window) - Math.max(from, w * window);
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            long w = Math.min(windows - 1, Math.max(0, (result.completion[i] - (long) origin - 1) / window));
+            windowCompletions[(int) w]++;
+        }
+    }
+
+    /** Metrics of a single-CPU run. */
+    public static SchedulerMetrics of(ProcessTable table, ScheduleResult result, int window) {
+        return new SchedulerMetrics(result.algorithm, table, result, new Timeline[] { result.timeline }, window);
+    }
+
+    /** Metrics of a multi-core run; utilization is over all cores. */
+    public static SchedulerMetrics of(ProcessTable table, MultiCoreScheduler.Result result, int window) {
+        return new SchedulerMetrics(result.metrics.algorithm, table, result.metrics, result.cores, window);
+    }
+
+    /**
+     * Turns the per-dispatch JFR event on or off. Events are only written while a JFR
+     * recording that enables {@code scheduler.Dispatch} is running.
+     */
+    public static void recordDispatches(boolean on) {
+        Timeline.setListener(on ? SchedulerMetrics::emit : null);
+    }
+
+    private static void emit(int p, int from, int to) {
+        DispatchEvent e = new DispatchEvent();
+        if (e.shouldCommit()) {
+            e.process = p;
+            e.start = from;
+            e.end = to;
+            e.commit();
+        }
+    }
+
+    /** Core-time with no process running, over [origin, makespan). */
+    public long idle() {
+        return (long) cores * (makespan - origin) - busy;
+    }
+
+    /** Share of core-time spent running processes, over [origin, makespan). */
+    public double utilization() {
+        long span = (long) cores * (makespan - origin);
+        return span == 0 ? 0 : (double) busy / span;
+    }
+
+    public int windows() {
+        return windowBusy.length;
+    }
+
+    /** Start time of window {@code w}. */
+    public long windowStart(int w) {
+        return origin + (long) w * window;
+    }
+
+    /** Share of core-time in window {@code w} spent running processes. */
+    public double utilization(int w) {
+        long length = Math.min(window, makespan - windowStart(w));
+        return length <= 0 ? 0 : (double) windowBusy[w] / (length * cores);
+    }
+
+    /** Processes completed per time unit in window {@code w}. */
+    public double throughput(int w) {
+        long length = Math.min(window, makespan - windowStart(w));
+        return length <= 0 ? 0 : (double) windowCompletions[w] / length;
+    }
+
+    /**
+     * Formats the histograms, the counters and the window series; at most {@code rows}
+     * windows are listed (evenly spaced when there are more).
+     */
+    public String report(int rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('\n').append(algorithm).append(" metrics:\n");
+        sb.append("Response time:   ").append(response.summary()).append('\n');
+        sb.append("Waiting time:    ").append(waiting.summary()).append('\n');
+        sb.append("Turnaround time: ").append(turnaround.summary()).append('\n');
+        sb.append(String.format("Context switches: %d, Idle time: %d, Utilization: %.1f%%%n",
+                                contextSwitches, idle(), 100 * utilization()));
+        int w = windows();
+        int step = Math.max(1, (w + rows - 1) / Math.max(1, rows));
+        sb.append(String.format("%12s %12s %12s%n", "Window", "Utilization", "Throughput"));
+        for (int i = 0; i < w; i += step) {
+            sb.append(String.format("%12d %11.1f%% %12.3f%n", windowStart(i), 100 * utilization(i), throughput(i)));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = "processes.txt";
+        int window = 0, rows = 20;
+        Path jfr = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--window": window = Integer.parseInt(args[++i]); break;
+                case "--rows":   rows = Integer.parseInt(args[++i]); break;
+                case "--jfr":    jfr = Paths.get(args[++i]); break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        ProcessTable table = ProcessScheduler.loadTable(file).trim();
+        Recording recording = null;
+        if (jfr != null) {
+            recording = new Recording();
+            recording.enable(DispatchEvent.class);
+            recording.start();
+            recordDispatches(true);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Sweep.Algorithm a : Sweep.Algorithm.values()) {
+            ScheduleResult r = a.run(table, 2);
+            // Default: about 20 windows over the run
+            int w = window > 0 ? window : Math.max(1, (r.makespan + 19) / 20);
+            sb.append(of(table, r, w).report(rows));
+        }
+        MultiCoreScheduler.Result smp = MultiCoreScheduler.run(table, 2, MultiCoreScheduler.Policy.ROUND_ROBIN, 2,
+                                                               MultiCoreScheduler.Balancer.WORK_STEALING,
+                                                               ForkJoinPool.commonPool());
+        int w = window > 0 ? window : Math.max(1, (smp.metrics.makespan + 19) / 20);
+        sb.append(of(table, smp, w).report(rows));
+        System.out.print(sb);
+
+        if (recording != null) {
+            recordDispatches(false);
+            recording.stop();
+            recording.dump(jfr);
+            recording.close();
+            System.out.println("Dispatch events written to " + jfr);
+        }
+    }
+}
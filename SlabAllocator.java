@@ -0,0 +1,230 @@
+import java.util.Arrays;
+
+/**
+ * Slab allocator for fixed-size object classes, layered on a backing {@link Allocator}.
+ *
+ * Requests up to {@code maxClass} units are rounded up to a power-of-two size class
+ * ({@code minClass}, 2×minClass, ..., maxClass). Each class carves objects out of slabs of
+ * {@code slabSize} units obtained from the backing allocator. Free objects are kept on a
+ * per-slab free list threaded through an {@code int[]}, and each class keeps a list of its
+ * slabs that still have free objects, so allocation and free are O(1) apart from the
+ * occasional slab fetched from or returned to the backing allocator. A slab whose objects
+ * have all been freed is returned immediately.
+ *
+ * Larger requests bypass the slabs and go straight to the backing allocator.
+ *
+ * Handles: {@code (slab << objectBits) | object} for slab objects, and
+ * {@code LARGE | backingHandle} for pass-through allocations.
+ */
+public class SlabAllocator implements Allocator {
+
+    private static final int NIL = -1;
+    private static final int LARGE = 1 << 30;
+
+    private final Allocator backing;
+    private final int minClassBits;
+    private final int classes;
+    private final int slabSize;
+    private final int objectBits;         // bits reserved for the object index in a handle
+
+    // Per slab (ids are recycled)
+    private int[] slabClass;
+    private int[] slabBacking;            // backing handle
+    private int[] slabFreeCount;
+    private int[] slabFreeHead;           // first free object, or NIL
+    private int[] slabNext, slabPrev;     // links in the class's partial list
+    private int slabs;
+    private int recycledSlab = NIL;
+
+    // Per object, indexed by handle: next free object in the same slab, and whether it is live
+    private int[] nextFree;
+    private boolean[] allocated;
+
+    // Per class: head of the list of slabs with free objects
+    private final int[] partial;
+
+    private long freeInSlabs;             // units held by free objects inside slabs
+
+    /**
+     * @param backing  where slabs (and large objects) come from
+     * @param minClass smallest object class in units (rounded up to a power of two)
+     * @param maxClass largest object class in units (rounded up to a power of two)
+     * @param slabSize units per slab; must hold at least one object of {@code maxClass}
+     */
+    public SlabAllocator(Allocator backing, int minClass, int maxClass, int slabSize) {
+        this.backing = backing;
+        this.minClassBits = ceilLog2(Math.max(1, minClass));
+        int maxClassBits = ceilLog2(Math.max(1, maxClass));
+        if (maxClassBits < minClassBits || (1 << maxClassBits) > slabSize) {
+            throw new IllegalArgumentException("Need minClass <= maxClass <= slabSize");
+        }
+        this.classes = maxClassBits - minClassBits + 1;
+        this.slabSize = slabSize;
+        this.objectBits = ceilLog2(slabSize >> minClassBits);
+
+        int cap = 16;
+        slabClass = new int[cap];
+        slabBacking = new int[cap];
+        slabFreeCount = new int[cap];
+        slabFreeHead = new int[cap];
+        slabNext = new int[cap];
+        slabPrev = new int[cap];
+        nextFree = new int[cap << objectBits];
+        allocated = new boolean[cap << objectBits];
+        partial = new int[classes];
+        Arrays.fill(partial, NIL);
+    }
+
+    @Override
+    public int allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative request: " + size);
+        }
+        int c = Math.max(0, ceilLog2(Math.max(1, size)) - minClassBits);
+        if (c >= classes) {
+            int h = backing.allocate(size);
+            return h == -1 ? -1 : LARGE | h;
+        }
+
+        int s = partial[c];
+        if (s == NIL) {
+            s = newSlab(c);
+            if (s == NIL) return -1;
+        }
+
+        int h = slabFreeHead[s];
+        slabFreeHead[s] = nextFree[h];
+        allocated[h] = true;
+        if (--slabFreeCount[s] == 0) unlinkPartial(s);
+        freeInSlabs -= classSize(c);
+        return h;
+    }
+
+    @Override
+    public void free(int handle) {
+        if ((handle & LARGE) != 0) {
+            backing.free(handle & ~LARGE);
+            return;
+        }
+        int s = handle >>> objectBits;
+        if (handle < 0 || s >= slabs || slabClass[s] < 0
+                || (handle & ((1 << objectBits) - 1)) >= objectsPerSlab(slabClass[s]) || !allocated[handle]) {
+            throw new IllegalArgumentException("Not an allocated handle: " + handle);
+        }
+        int c = slabClass[s];
+        allocated[handle] = false;
+        nextFree[handle] = slabFreeHead[s];
+        slabFreeHead[s] = handle;
+        freeInSlabs += classSize(c);
+        if (slabFreeCount[s]++ == 0) linkPartial(s);
+
+        // Whole slab free again: give it back
+        if (slabFreeCount[s] == objectsPerSlab(c)) {
+            unlinkPartial(s);
+            backing.free(slabBacking[s]);
+            freeInSlabs -= (long) objectsPerSlab(c) * classSize(c);
+            slabClass[s] = -1;
+            slabNext[s] = recycledSlab;
+            recycledSlab = s;
+        }
+    }
+
+    @Override
+    public int blockOf(int handle) {
+        if ((handle & LARGE) != 0) return backing.blockOf(handle & ~LARGE);
+        return backing.blockOf(slabBacking[handle >>> objectBits]);
+    }
+
+    @Override
+    public int reservedSize(int handle) {
+        if ((handle & LARGE) != 0) return backing.reservedSize(handle & ~LARGE);
+        return classSize(slabClass[handle >>> objectBits]);
+    }
+
+    @Override
+    public long freeMemory() {
+        return backing.freeMemory() + freeInSlabs;
+    }
+
+    @Override
+    public int largestFree() {
+        int largest = backing.largestFree();
+        for (int c = classes - 1; c >= 0 && classSize(c) > largest; c--) {
+            if (partial[c] != NIL) return classSize(c);
+        }
+        return largest;
+    }
+
+    @Override
+    public String name() {
+        return "Slab";
+    }
+
+    private int newSlab(int c) {
+        int b = backing.allocate(slabSize);
+        if (b == -1) return NIL;
+
+        int s;
+        if (recycledSlab != NIL) {
+            s = recycledSlab;
+            recycledSlab = slabNext[s];
+        } else {
+            if (slabs == slabClass.length) grow();
+            s = slabs++;
+        }
+        if (((long) (s + 1) << objectBits) > LARGE) {
+            throw new IllegalStateException("Too many slabs for the handle encoding");
+        }
+
+        int objects = objectsPerSlab(c);
+        slabClass[s] = c;
+        slabBacking[s] = b;
+        slabFreeCount[s] = objects;
+        int base = s << objectBits;
+        for (int o = 0; o < objects; o++) {
+            nextFree[base + o] = o + 1 < objects ? base + o + 1 : NIL;
+        }
+        slabFreeHead[s] = base;
+        freeInSlabs += (long) objects * classSize(c);
+        linkPartial(s);
+        return s;
+    }
+
+    private void linkPartial(int s) {
+        int c = slabClass[s];
+        slabPrev[s] = NIL;
+        slabNext[s] = partial[c];
+        if (partial[c] != NIL) slabPrev[partial[c]] = s;
+        partial[c] = s;
+    }
+
+    private void unlinkPartial(int s) {
+        int c = slabClass[s];
+        if (slabPrev[s] != NIL) slabNext[slabPrev[s]] = slabNext[s]; else partial[c] = slabNext[s];
+        if (slabNext[s] != NIL) slabPrev[slabNext[s]] = slabPrev[s];
+    }
+
+    private int classSize(int c) {
+        return 1 << (c + minClassBits);
+    }
+
+    private int objectsPerSlab(int c) {
+        return slabSize / classSize(c);
+    }
+
+    private void grow() {
+        int cap = slabClass.length << 1;
+        slabClass = Arrays.copyOf(slabClass, cap);
+        slabBacking = Arrays.copyOf(slabBacking, cap);
+        slabFreeCount = Arrays.copyOf(slabFreeCount, cap);
+        slabFreeHead = Arrays.copyOf(slabFreeHead, cap);
+        slabNext = Arrays.copyOf(slabNext, cap);
+        slabPrev = Arrays.copyOf(slabPrev, cap);
+        nextFree = Arrays.copyOf(nextFree, cap << objectBits);
+        allocated = Arrays.copyOf(allocated, cap << objectBits);
+    }
+
+    private static int ceilLog2(int x) {
+        return 32 - Integer.numberOfLeadingZeros(x - 1);
+    }
+}
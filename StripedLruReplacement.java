@@ -0,0 +1,94 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe LRU built from lock-protected {@link LruReplacement} segments.
+ *
+ * Pages are spread over S stripes by a hash of the page number; each stripe owns
+ * {@code frames / S} frames (the remainder going to the first stripes) and is an ordinary
+ * LRU behind its own {@link ReentrantLock}. With one stripe this is exact LRU under a global
+ * lock, where every hit serialises on the lock to move its page to the head of the list.
+ * With S stripes, threads touching different stripes never meet, at the cost of LRU becoming
+ * per-stripe: a stripe can evict while another still has colder pages.
+ *
+ * A thread first tries the lock without blocking, so the stripe can count the acquisitions
+ * that had to wait. Counters are only written under the stripe's lock, and each stripe is its
+ * own object, so they add no shared writes of their own.
+ */
+public class StripedLruReplacement implements ConcurrentReplacement {
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LruReplacement lru;
+        long acquisitions;
+        long contended;
+
+        Stripe(int frames) {
+            lru = new LruReplacement(frames);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int frames;
+
+    /**
+     * @param frames  total frames (at least one per stripe)
+     * @param stripes number of independently locked segments; 1 gives a global-lock LRU
+     */
+    public StripedLruReplacement(int frames, int stripes) {
+        if (stripes <= 0 || frames < stripes) {
+            throw new IllegalArgumentException("Need 1 <= stripes <= frames: " + stripes + ", " + frames);
+        }
+        this.frames = frames;
+        this.stripes = new Stripe[stripes];
+        for (int s = 0; s < stripes; s++) {
+            this.stripes[s] = new Stripe(frames / stripes + (s < frames % stripes ? 1 : 0));
+        }
+    }
+
+    @Override
+    public boolean access(int page) {
+        // Murmur3 finaliser, scaled onto [0, stripes) without a division. It must not be the
+        // Fibonacci hash the stripes' own maps use, or a stripe's pages would all share the
+        // top hash bits and cluster in its map.
+        int h = page;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        Stripe s = stripes[(int) (((h & 0xFFFFFFFFL) * stripes.length) >>> 32)];
+        boolean waited = !s.lock.tryLock();
+        if (waited) s.lock.lock();
+        try {
+            s.acquisitions++;
+            if (waited) s.contended++;
+            return s.lru.access(page);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    @Override
+    public long acquisitions() {
+        long sum = 0;
+        for (Stripe s : stripes) sum += s.acquisitions;
+        return sum;
+    }
+
+    @Override
+    public long contended() {
+        long sum = 0;
+        for (Stripe s : stripes) sum += s.contended;
+        return sum;
+    }
+
+    @Override
+    public int frames() {
+        return frames;
+    }
+
+    @Override
+    public String name() {
+        return stripes.length == 1 ? "LRU (global lock)" : "Striped LRU (" + stripes.length + ")";
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs one process trace under many scheduler configurations at once.
+ *
+ * A sweep is a grid of {@link Cell}s — an {@link Algorithm} plus its parameters (the
+ * quantum for Round Robin). Every cell is simulated headless on a {@link ForkJoinPool}
+ * against the same {@link ProcessTable}, which is only ever read, so no copies are made
+ * and cells never contend on shared state. Each cell's {@link ScheduleResult} is reduced to
+ * a structured {@link Result}.
+ *
+ * Usage: {@code java Sweep [trace.txt] [threads]} — runs every algorithm plus Round Robin
+ * with quanta 1..100 and prints one row per cell.
+ */
+public class Sweep {
+
+    /** Schedulers a cell can run. Quantum is ignored by the algorithms that have none. */
+    public enum Algorithm {
+        FIRST_COME_FIRST_SERVED {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return FCFS.run(t);
+            }
+        },
+        SHORTEST_JOB_FIRST {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return SJF.run(t);
+            }
+        },
+        SHORTEST_REMAINING_TIME_FIRST {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return SRTF.run(t);
+            }
+        },
+        ROUND_ROBIN {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return RoundRobin.runByArrival(t, quantum);
+            }
+        },
+        PRIORITY {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return PriorityScheduling.run(t);
+            }
+        },
+        PRIORITY_PREEMPTIVE {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return PriorityScheduling.runPreemptive(t);
+            }
+        },
+        MULTILEVEL_FEEDBACK_QUEUE {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return MLFQ.run(t, MLFQ.DEFAULT_QUANTA, MLFQ.DEFAULT_BOOST);
+            }
+        },
+        COMPLETELY_FAIR {
+            ScheduleResult run(ProcessTable t, int quantum) {
+                return CFS.run(t, CFS.DEFAULT_LATENCY, CFS.DEFAULT_GRANULARITY);
+            }
+        };
+
+        /** Simulates the algorithm headless. */
+        abstract ScheduleResult run(ProcessTable table, int quantum);
+    }
+
+    /** One point of the grid. */
+    public static final class Cell {
+        public final Algorithm algorithm;
+        public final int quantum;
+
+        public Cell(Algorithm algorithm, int quantum) {
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm == Algorithm.ROUND_ROBIN ? algorithm + "(q=" + quantum + ")" : algorithm.toString();
+        }
+    }
+
+    /** Aggregate outcome of one cell. */
+    public static final class Result {
+        public final Cell cell;
+        public final double averageWT;
+        public final double averageTAT;
+        public final int maxTAT;
+        public final int makespan;      // completion time of the last process
+        public final long nanos;        // wall time spent simulating this cell
+
+        Result(Cell cell, double averageWT, double averageTAT, int maxTAT, int makespan, long nanos) {
+            this.cell = cell;
+            this.averageWT = averageWT;
+            this.averageTAT = averageTAT;
+            this.maxTAT = maxTAT;
+            this.makespan = makespan;
+            this.nanos = nanos;
+        }
+    }
+
+    /** Every algorithm once, with Round Robin expanded over quanta {@code minQuantum..maxQuantum}. */
+    public static List<Cell> fullGrid(int minQuantum, int maxQuantum) {
+        List<Cell> grid = new ArrayList<>();
+        for (Algorithm a : Algorithm.values()) {
+            if (a == Algorithm.ROUND_ROBIN) {
+                for (int q = minQuantum; q <= maxQuantum; q++) {
+                    grid.add(new Cell(a, q));
+                }
+            } else {
+                grid.add(new Cell(a, 0));
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Runs every cell of {@code grid} on {@code pool} and returns the results in grid order.
+     *
+     * @param trace processes to simulate; shared read-only by all cells
+     * @param grid  configurations to run
+     * @param pool  where to run them (e.g. {@link ForkJoinPool#commonPool()})
+     */
+    public static List<Result> run(ProcessTable trace, List<Cell> grid, ForkJoinPool pool) {
+        trace.trim(); // the only mutation, done once before the table is shared
+        Result[] results = new Result[grid.size()];
+        pool.invoke(new CellTask(trace, grid, results, 0, grid.size()));
+        return Arrays.asList(results);
+    }
+
+    /** Simulates a single cell on the calling thread. */
+    static Result runCell(ProcessTable trace, Cell cell) {
+        long start = System.nanoTime();
+        ScheduleResult r = cell.algorithm.run(trace, cell.quantum);
+        return new Result(cell, r.averageWT(), r.averageTAT(), r.maxTAT, r.makespan, System.nanoTime() - start);
+    }
+
+    /** Splits the grid in halves until a single cell remains, then simulates it. */
+    private static class CellTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ProcessTable trace;
+        private final transient List<Cell> grid;
+        private final transient Result[] results;
+        private final int from, to;
+
+        CellTask(ProcessTable trace, List<Cell> grid, Result[] results, int from, int to) {
+            this.trace = trace;
+            this.grid = grid;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = runCell(trace, grid.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CellTask(trace, grid, results, from, mid),
+                      new CellTask(trace, grid, results, mid, to));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "processes.txt";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ProcessTable trace = ProcessScheduler.loadTable(file);
+        List<Cell> grid = fullGrid(1, 100);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<Result> results = run(trace, grid, pool);
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.printf("%-30s %12s %12s %10s %10s %10s%n", "Configuration", "Average WT", "Average TAT",
+                          "Max TAT", "Makespan", "ms");
+        for (Result r : results) {
+            System.out.printf("%-30s %12.2f %12.2f %10d %10d %10.2f%n", r.cell, r.averageWT, r.averageTAT,
+                              r.maxTAT, r.makespan, r.nanos / 1e6);
+        }
+        System.out.printf("%d cells, %d processes, %d threads: %.1f ms%n",
+                          grid.size(), trace.size(), threads, elapsed / 1e6);
+    }
+}
@@ -0,0 +1,466 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * CPU scheduling, memory allocation and paging simulated together, so that their interaction
+ * (thrashing) shows up in turnaround times instead of being studied one demo at a time.
+ *
+ * Every process has a memory footprint and its own page-reference stream:
+ * <ul>
+ *   <li><b>Admission.</b> On arrival a process asks an {@link Allocator} for its footprint. If
+ *       the request fails it waits, in arrival order, and is retried whenever a process
+ *       completes and frees its memory; any waiting process that now fits is admitted. Only
+ *       admitted processes are ready to run, so the allocator sets the degree of
+ *       multiprogramming.</li>
+ *   <li><b>Execution.</b> One CPU runs the ready queue under a {@link MultiCoreScheduler.Policy}
+ *       (Round Robin slices every dispatch; the others run to completion). Each time unit of
+ *       CPU work issues {@code refsPerUnit} references against one frame pool shared by all
+ *       processes and managed by a {@link ReplacementPolicy}.</li>
+ *   <li><b>Costs.</b> Every page fault stalls the process for {@code faultCost} and every
+ *       dispatch of a different process than the last one costs {@code switchCost}. Both
+ *       stalls hold the CPU, so they are part of the process's segment in the timeline and
+ *       of its waiting time (WT = TAT - burst includes admission delay, switches and faults).</li>
+ * </ul>
+ *
+ * Page numbers are global: process p owns pages {@code base[p] .. base[p] + pages[p] - 1},
+ * with {@code pages[p] = ceil(footprint / pageSize)}. A process references a hot window of a
+ * quarter of its pages with probability 0.9 and any of its pages otherwise; the window moves
+ * on by its own width every {@code phase} units of CPU time, so working sets drift as the
+ * process runs. References are drawn from a per-process {@link SplittableRandom} split off
+ * the seed in table order, so a run is deterministic. Pages of completed processes are not
+ * invalidated; they age out of the pool like any other cold page.
+ *
+ * Usage:
+ * <pre>
+ * java SystemSimulator [processes.txt | trace.bin] [--footprints 212,417,112,426] [--memory 100,500,200,300,600]
+ *                      [--allocators first,best,worst,buddy,slab] [--policy fcfs|sjf|rr|priority] [--quanta 1,2,4,8]
+ *                      [--replacement lru|fifo|clock] [--frames F] [--page-size S] [--refs R]
+ *                      [--fault-cost C] [--switch-cost C] [--seed 42] [--verbose]
+ * </pre>
+ * runs every allocator and quantum and prints a comparison table; footprints are assigned to
+ * processes by table row, cycling through the list. {@code --verbose} also prints each run's
+ * schedule report.
+ */
+public class SystemSimulator {
+
+    /** Share of a process's pages in its hot window, and chance a reference hits the window. */
+    static final double HOT_FRACTION = 0.25;
+    static final double LOCALITY = 0.9;
+
+    private MultiCoreScheduler.Policy policy = MultiCoreScheduler.Policy.ROUND_ROBIN;
+    private int quantum = 2;
+    private int frames = 8;
+    private IntFunction<ReplacementPolicy> replacement = LruReplacement::new;
+    private int pageSize = 64;
+    private int refsPerUnit = 4;
+    private int phase = 4;
+    private int faultCost = 1;
+    private int switchCost = 1;
+    private long seed = 42;
+
+    /** Outcome of one co-simulation. */
+    public static class Result {
+        /** Per-process metrics and timeline (segments include switch and fault stalls). */
+        public final ScheduleResult schedule;
+        public final String allocator;
+        public final long references;
+        public final long faults;
+        public final long contextSwitches;
+        /** Time spent in context switches and in page-fault stalls. */
+        public final long switchTime;
+        public final long faultTime;
+        /** Total time processes spent waiting for memory before admission. */
+        public final long admissionWait;
+        /** Largest number of processes holding memory at once. */
+        public final int peakAdmitted;
+
+        Result(ScheduleResult schedule, String allocator, long references, long faults, long contextSwitches,
+               long switchTime, long faultTime, long admissionWait, int peakAdmitted) {
+            this.schedule = schedule;
+            this.allocator = allocator;
+            this.references = references;
+            this.faults = faults;
+            this.contextSwitches = contextSwitches;
+            this.switchTime = switchTime;
+            this.faultTime = faultTime;
+            this.admissionWait = admissionWait;
+            this.peakAdmitted = peakAdmitted;
+        }
+
+        /** Faults per reference. */
+        public double faultRate() {
+            return references == 0 ? 0 : (double) faults / references;
+        }
+
+        /** Share of the makespan lost to switches and fault stalls. */
+        public double overhead() {
+            int span = schedule.makespan;
+            return span == 0 ? 0 : (double) (switchTime + faultTime) / span;
+        }
+    }
+
+    public SystemSimulator policy(MultiCoreScheduler.Policy policy, int quantum) {
+        if (policy == MultiCoreScheduler.Policy.ROUND_ROBIN && quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive: " + quantum);
+        }
+        this.policy = policy;
+        this.quantum = quantum;
+        return this;
+    }
+
+    /** Shared frame pool: {@code frames} frames managed by a policy built from the frame count. */
+    public SystemSimulator frames(int frames, IntFunction<ReplacementPolicy> replacement) {
+        if (frames <= 0) throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        this.frames = frames;
+        this.replacement = replacement;
+        return this;
+    }
+
+    /**
+     * Paging model: footprint units per page, references per time unit of CPU work, and CPU
+     * time between moves of a process's hot window.
+     */
+    public SystemSimulator paging(int pageSize, int refsPerUnit, int phase) {
+        if (pageSize <= 0 || refsPerUnit < 0 || phase <= 0) {
+            throw new IllegalArgumentException("Bad paging model: page size " + pageSize + ", "
+                                               + refsPerUnit + " refs per unit, phase " + phase);
+        }
+        this.pageSize = pageSize;
+        this.refsPerUnit = refsPerUnit;
+        this.phase = phase;
+        return this;
+    }
+
+    /** Latency of one page fault and of one context switch, in time units. */
+    public SystemSimulator costs(int faultCost, int switchCost) {
+        if (faultCost < 0 || switchCost < 0) {
+            throw new IllegalArgumentException("Negative cost: " + faultCost + ", " + switchCost);
+        }
+        this.faultCost = faultCost;
+        this.switchCost = switchCost;
+        return this;
+    }
+
+    public SystemSimulator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Runs the co-simulation.
+     *
+     * @param table     processes (not modified; only its first {@code size()} rows are read)
+     * @param footprint memory needed per table row, in the allocator's units
+     * @param allocator fresh allocator over the machine's memory
+     * @return schedule and memory metrics
+     * @throws IllegalArgumentException if a process cannot be allocated even with every other
+     *                                  process's memory free
+     */
+    public Result run(ProcessTable table, int[] footprint, Allocator allocator) {
+        return run(table, footprint, allocator, quantum);
+    }
+
+    private Result run(ProcessTable table, int[] footprint, Allocator allocator, int quantum) {
+        int n = table.size();
+        if (footprint.length < n) {
+            throw new IllegalArgumentException("Need a footprint per process: " + footprint.length + " < " + n);
+        }
+        int[] arrival = table.arrival, burst = table.burst;
+        int[] byArrival = table.byArrival();
+
+        // Page layout and per-process reference generators
+        int[] pages = new int[n], base = new int[n];
+        long nextBase = 0;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rng = new SplittableRandom[n];
+        for (int p = 0; p < n; p++) {
+            pages[p] = Math.max(1, (int) (((long) footprint[p] + pageSize - 1) / pageSize));
+            if (nextBase + pages[p] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many pages in total for one frame pool");
+            }
+            base[p] = (int) nextBase;
+            nextBase += pages[p];
+            rng[p] = root.split();
+        }
+        ReplacementPolicy pool = replacement.apply(frames);
+
+        int[] remaining = burst.clone();
+        int[] cpuUsed = new int[n];
+        int[] handle = new int[n];
+        int[] completion = new int[n];
+        int[] waitingForMemory = new int[Math.max(1, n)];   // arrival order
+        int waitingCount = 0;
+        IndexedHeap ready = new IndexedHeap(Math.min(Math.max(1, n), 1 << 16));
+        int sequence = 0;
+        Timeline timeline = new Timeline();
+
+        long references = 0, switches = 0, switchTime = 0, faultTime = 0, admissionWait = 0;
+        int admitted = 0, peakAdmitted = 0;
+        long time = 0;
+        int next = 0, done = 0, last = -1;
+
+        while (done < n) {
+            // Arrivals up to now: admit if memory allows, else wait for memory
+            while (next < n && arrival[byArrival[next]] <= time) {
+                int p = byArrival[next++];
+                if (waitingCount == 0 && (handle[p] = allocator.allocate(footprint[p])) >= 0) {
+                    admitted++;
+                    ready.insert(p, key(p, table, sequence++));
+                } else {
+                    if (admitted == 0) throw tooLarge(table, p, footprint, allocator);
+                    waitingForMemory[waitingCount++] = p;
+                }
+            }
+            peakAdmitted = Math.max(peakAdmitted, admitted);
+            if (ready.isEmpty()) {
+                // Nothing admitted is runnable, so memory is free: the next arrival must come first.
+                time = Math.max(time, arrival[byArrival[next]]);
+                continue;
+            }
+
+            int p = ready.poll();
+            int start = (int) time;
+            if (last != -1 && last != p) {
+                switches++;
+                switchTime += switchCost;
+                time += switchCost;
+            }
+            last = p;
+
+            int run = policy == MultiCoreScheduler.Policy.ROUND_ROBIN ? Math.min(quantum, remaining[p]) : remaining[p];
+            long faultsBefore = pool.faults();
+            for (int u = 0; u < run; u++) {
+                int window = Math.max(1, (int) (pages[p] * HOT_FRACTION));
+                int hot = (int) ((long) cpuUsed[p] / phase * window % pages[p]);
+                SplittableRandom r = rng[p];
+                for (int k = 0; k < refsPerUnit; k++) {
+                    int page = r.nextDouble() < LOCALITY ? (hot + r.nextInt(window)) % pages[p] : r.nextInt(pages[p]);
+                    pool.access(base[p] + page);
+                }
+                cpuUsed[p]++;
+            }
+            references += (long) run * refsPerUnit;
+            long stall = (pool.faults() - faultsBefore) * faultCost;
+            faultTime += stall;
+            time += run + stall;
+            if (time > Integer.MAX_VALUE) throw new ArithmeticException("Simulated time overflows an int");
+            timeline.add(p, start, (int) time);
+            remaining[p] -= run;
+
+            // Arrivals during the slice queue ahead of the process whose slice ended
+            while (next < n && arrival[byArrival[next]] <= time) {
+                int q = byArrival[next++];
+                if (waitingCount == 0 && (handle[q] = allocator.allocate(footprint[q])) >= 0) {
+                    admitted++;
+                    ready.insert(q, key(q, table, sequence++));
+                } else {
+                    waitingForMemory[waitingCount++] = q;
+                }
+            }
+            peakAdmitted = Math.max(peakAdmitted, admitted);
+
+            if (remaining[p] > 0) {
+                ready.insert(p, key(p, table, sequence++));
+                continue;
+            }
+            completion[p] = (int) time;
+            done++;
+            allocator.free(handle[p]);
+            admitted--;
+
+            // Retry waiting processes in arrival order; any that now fit are admitted
+            int kept = 0;
+            for (int i = 0; i < waitingCount; i++) {
+                int q = waitingForMemory[i];
+                if ((handle[q] = allocator.allocate(footprint[q])) >= 0) {
+                    admissionWait += time - arrival[q];
+                    admitted++;
+                    ready.insert(q, key(q, table, sequence++));
+                } else {
+                    if (admitted == 0) throw tooLarge(table, q, footprint, allocator);
+                    waitingForMemory[kept++] = q;
+                }
+            }
+            waitingCount = kept;
+        }
+
+        String label = policyLabel(quantum) + " + " + allocator.name() + " + " + pool.name() + " (" + frames + " frames)";
+        ScheduleResult schedule = new ScheduleResult(label, table, completion, null, timeline);
+        return new Result(schedule, allocator.name(), references, pool.faults(), switches,
+                          switchTime, faultTime, admissionWait, peakAdmitted);
+    }
+
+    /** Ready-queue key: policy order, then queueing order. */
+    private long key(int p, ProcessTable table, int sequence) {
+        int k;
+        switch (policy) {
+            case SJF:      k = table.burst[p]; break;
+            case PRIORITY: k = table.priority[p]; break;
+            default:       k = 0; break;
+        }
+        return ((long) k << 32) | (sequence & 0xFFFFFFFFL);
+    }
+
+    private String policyLabel(int quantum) {
+        return policy == MultiCoreScheduler.Policy.ROUND_ROBIN
+               ? policy.label + " (Quantum = " + quantum + ")"
+               : policy.label;
+    }
+
+    private static IllegalArgumentException tooLarge(ProcessTable table, int p, int[] footprint, Allocator allocator) {
+        return new IllegalArgumentException("P" + table.pid[p] + " needs " + footprint[p] + " units, more than "
+                                            + allocator.name() + " can give with all memory free");
+    }
+
+    /**
+     * Builds an allocator by name (first, best, worst, buddy or slab) over a copy of
+     * {@code memoryBlocks}, configured as in the {@link MemoryManagement} demos.
+     */
+    public static Supplier<Allocator> allocator(String name, int[] memoryBlocks) {
+        int[] blocks = memoryBlocks.clone();
+        switch (name) {
+            case "first": return () -> new FitAllocator(FitAllocator.Policy.FIRST, blocks.clone());
+            case "best":  return () -> new FitAllocator(FitAllocator.Policy.BEST, blocks.clone());
+            case "worst": return () -> new FitAllocator(FitAllocator.Policy.WORST, blocks.clone());
+            case "buddy": return () -> new BuddyAllocator(blocks.clone(), 1);
+            case "slab":
+                return () -> new SlabAllocator(new FitAllocator(FitAllocator.Policy.BEST, blocks.clone()), 8, 128, 512);
+            default:
+                throw new IllegalArgumentException("Unknown allocator: " + name);
+        }
+    }
+
+    /** Footprint per table row, cycling through {@code sizes}. */
+    public static int[] footprints(int rows, int[] sizes) {
+        int[] f = new int[rows];
+        for (int i = 0; i < rows; i++) f[i] = sizes[i % sizes.length];
+        return f;
+    }
+
+    /**
+     * Runs every allocator with every quantum (a single run per allocator unless the policy
+     * is Round Robin) and returns a comparison table of end-to-end TAT and fault rate.
+     */
+    public String compare(ProcessTable table, int[] footprint, String[] allocators, int[] memoryBlocks,
+                          int[] quanta, boolean verbose) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n%-10s %7s %9s %9s %8s %10s %8s %9s %9s%n", "Allocator", "Quantum", "Avg TAT",
+                                "Avg WT", "Max TAT", "Fault rate", "Switches", "Overhead", "Mem wait"));
+        int[] qs = policy == MultiCoreScheduler.Policy.ROUND_ROBIN ? quanta : new int[] { quantum };
+        for (int q : qs) {
+            if (policy == MultiCoreScheduler.Policy.ROUND_ROBIN && q <= 0) {
+                throw new IllegalArgumentException("Quantum must be positive: " + q);
+            }
+        }
+        for (String a : allocators) {
+            Supplier<Allocator> factory = allocator(a, memoryBlocks);
+            for (int q : qs) {
+                Allocator memory = factory.get();
+                Result r;
+                try {
+                    r = run(table, footprint, memory, q);
+                } catch (IllegalArgumentException e) {
+                    sb.append(String.format("%-10s %7s %s%n", memory.name(), "-", e.getMessage()));
+                    break; // the quantum does not change admission
+                }
+                if (verbose) {
+                    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                    ScheduleRenderer.print(r.schedule, new GanttRenderer(), new PrintStream(buf, true));
+                    sb.append(buf).append(summary(r)).append('\n');
+                }
+                sb.append(String.format("%-10s %7s %9.2f %9.2f %8d %9.1f%% %8d %8.1f%% %9d%n", r.allocator,
+                                        policy == MultiCoreScheduler.Policy.ROUND_ROBIN ? Integer.toString(q) : "-",
+                                        r.schedule.averageTAT(), r.schedule.averageWT(), r.schedule.maxTAT,
+                                        100 * r.faultRate(), r.contextSwitches, 100 * r.overhead(),
+                                        r.admissionWait));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** One-line memory and overhead summary of a run. */
+    public static String summary(Result r) {
+        return String.format("References: %d, Faults: %d (%.1f%%), Context switches: %d, "
+                             + "Fault stall: %d, Switch time: %d, Memory wait: %d, Peak admitted: %d",
+                             r.references, r.faults, 100 * r.faultRate(), r.contextSwitches,
+                             r.faultTime, r.switchTime, r.admissionWait, r.peakAdmitted);
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = "processes.txt";
+        int[] footprints = { 212, 417, 112, 426 };
+        int[] memory = { 100, 500, 200, 300, 600 };
+        String[] allocators = { "first", "best", "worst", "buddy", "slab" };
+        int[] quanta = { 1, 2, 4, 8 };
+        MultiCoreScheduler.Policy policy = MultiCoreScheduler.Policy.ROUND_ROBIN;
+        IntFunction<ReplacementPolicy> replacement = LruReplacement::new;
+        int frames = 8, pageSize = 64, refs = 4, phase = 4, faultCost = 1, switchCost = 1;
+        long seed = 42;
+        boolean verbose = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--footprints":  footprints = ints(args[++i]); break;
+                case "--memory":      memory = ints(args[++i]); break;
+                case "--allocators":  allocators = args[++i].split(","); break;
+                case "--quanta":      quanta = ints(args[++i]); break;
+                case "--frames":      frames = Integer.parseInt(args[++i]); break;
+                case "--page-size":   pageSize = Integer.parseInt(args[++i]); break;
+                case "--refs":        refs = Integer.parseInt(args[++i]); break;
+                case "--phase":       phase = Integer.parseInt(args[++i]); break;
+                case "--fault-cost":  faultCost = Integer.parseInt(args[++i]); break;
+                case "--switch-cost": switchCost = Integer.parseInt(args[++i]); break;
+                case "--seed":        seed = Long.parseLong(args[++i]); break;
+                case "--verbose":     verbose = true; break;
+                case "--policy":
+                    switch (args[++i]) {
+                        case "fcfs":     policy = MultiCoreScheduler.Policy.FCFS; break;
+                        case "sjf":      policy = MultiCoreScheduler.Policy.SJF; break;
+                        case "rr":       policy = MultiCoreScheduler.Policy.ROUND_ROBIN; break;
+                        case "priority": policy = MultiCoreScheduler.Policy.PRIORITY; break;
+                        default:
+                            System.err.println("Unknown policy: " + args[i]);
+                            System.exit(2);
+                    }
+                    break;
+                case "--replacement":
+                    switch (args[++i]) {
+                        case "lru":   replacement = LruReplacement::new; break;
+                        case "fifo":  replacement = FifoReplacement::new; break;
+                        case "clock": replacement = ClockReplacement::new; break;
+                        default:
+                            System.err.println("Unknown replacement policy: " + args[i]);
+                            System.exit(2);
+                    }
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Unknown option: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+            }
+        }
+
+        ProcessTable table = file.endsWith(".bin")
+                             ? BinaryTrace.map(Paths.get(file)).toTable()
+                             : ProcessScheduler.loadTable(file);
+        SystemSimulator sim = new SystemSimulator()
+                .policy(policy, quanta.length > 0 ? quanta[0] : 2)
+                .frames(frames, replacement)
+                .paging(pageSize, refs, phase)
+                .costs(faultCost, switchCost)
+                .seed(seed);
+        System.out.print(sim.compare(table, footprints(table.size(), footprints), allocators, memory, quanta, verbose));
+    }
+}
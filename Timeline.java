@@ -0,0 +1,92 @@
+import java.util.Arrays;
+
+/**
+ * Run-length encoded execution timeline: a sequence of (process index, start, end)
+ * segments stored in parallel {@code int[]} columns.
+ *
+ * A slice that continues the previous segment (same process, starting exactly where
+ * the last one ended) is merged into it, so a process that runs many back-to-back
+ * quanta costs one segment, not one per quantum. Gaps between segments are idle CPU.
+ *
+ * Every slice can also be reported, before merging, to a process-wide {@link Listener} (e.g.
+ * to emit a profiling event per dispatch, see {@link SchedulerMetrics#recordDispatches}). With
+ * no listener installed the cost is one field read per slice.
+ */
+public class Timeline {
+
+    /** Receives every non-empty slice passed to {@link #add}, on the simulating thread. */
+    public interface Listener {
+        void slice(int p, int from, int to);
+    }
+
+    private static volatile Listener listener;
+
+    private int[] index;
+    private int[] start;
+    private int[] end;
+    private int size;
+
+    public Timeline() {
+        this(16);
+    }
+
+    public Timeline(int initialCapacity) {
+        int cap = Math.max(1, initialCapacity);
+        index = new int[cap];
+        start = new int[cap];
+        end = new int[cap];
+    }
+
+    /**
+     * Records that process {@code p} ran on the CPU during [{@code from}, {@code to}).
+     * Empty slices are ignored; a slice contiguous with the last segment of the same
+     * process extends that segment instead of adding a new one.
+     */
+    public void add(int p, int from, int to) {
+        if (to <= from) return;
+        Listener l = listener;
+        if (l != null) l.slice(p, from, to);
+        if (size > 0 && index[size - 1] == p && end[size - 1] == from) {
+            end[size - 1] = to;
+            return;
+        }
+        if (size == index.length) {
+            int cap = index.length << 1;
+            index = Arrays.copyOf(index, cap);
+            start = Arrays.copyOf(start, cap);
+            end = Arrays.copyOf(end, cap);
+        }
+        index[size] = p;
+        start[size] = from;
+        end[size] = to;
+        size++;
+    }
+
+    /**
+     * Installs the listener that sees every slice added to any timeline from now on, or removes
+     * it with {@code null}. Listeners must be thread-safe when schedulers run in parallel.
+     */
+    public static void setListener(Listener l) {
+        listener = l;
+    }
+
+    /** Number of segments. */
+    public int size() {
+        return size;
+    }
+
+    /** Process index (into the scheduler's input) of segment {@code i}. */
+    public int index(int i) {
+        return index[i];
+    }
+
+    /** Start time of segment {@code i}. */
+    public int start(int i) {
+        return start[i];
+    }
+
+    /** End time (exclusive) of segment {@code i}. */
+    public int end(int i) {
+        return end[i];
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming loader for whitespace-separated process traces (the {@code processes.txt} format).
+ *
+ * The file is memory-mapped in windows with {@link FileChannel#map} and integers are parsed
+ * straight from the mapped bytes by a small state machine, so no {@code String}, token array
+ * or boxed value is created per row and files larger than 2 GB are fine. The parser state
+ * survives window boundaries, so a row split across two windows is parsed correctly.
+ *
+ * Rows are handed to a {@link ProcessSink} as soon as they are complete: pass a
+ * {@link ProcessTable} to materialise the trace, or any other sink to start work before the
+ * whole file has been read.
+ *
+ * As with {@link ProcessScheduler#readProcesses(String)}, the first line is a header and rows
+ * with fewer than four integers (or with non-numeric or out-of-range tokens) are skipped.
+ */
+public final class TraceLoader {
+
+    /** Bytes mapped at a time. */
+    private static final long WINDOW = 64L << 20;
+
+    private static final int FIELDS = 4;
+
+    // Parser state, kept across windows.
+    private final int[] fields = new int[FIELDS];
+    private final ProcessSink sink;
+    private boolean header = true;    // still inside the first line
+    private boolean badRow;           // row contains a non-numeric or out-of-range token
+    private boolean inNumber;
+    private boolean negative;
+    private long value;               // stops growing once past the int range
+    private int field;                // number of integers completed on this row
+    private long rows;
+
+    private TraceLoader(ProcessSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Parses {@code file} and feeds every row to {@code sink}.
+     *
+     * @return number of rows delivered
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static long load(Path file, ProcessSink sink) throws IOException {
+        TraceLoader loader = new TraceLoader(sink);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            for (long pos = 0; pos < size; pos += WINDOW) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+                loader.parse(buf);
+            }
+        }
+        loader.endRow(); // last row may lack a trailing newline
+        return loader.rows;
+    }
+
+    /** Parses {@code file} into a new columnar table. */
+    public static ProcessTable loadTable(Path file) throws IOException {
+        // Rough guess of ~12 bytes per row keeps regrowth to a few copies.
+        long guess = Files.size(file) / 12;
+        ProcessTable table = new ProcessTable((int) Math.min(guess, 1 << 24));
+        load(file, table);
+        return table.trim();
+    }
+
+    private void parse(MappedByteBuffer buf) {
+        int limit = buf.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = buf.get(i);
+            if (header) {
+                if (b == '\n') header = false;
+                continue;
+            }
+            if (b >= '0' && b <= '9') {
+                if (value <= Integer.MAX_VALUE) value = value * 10 + (b - '0');
+                inNumber = true;
+            } else if (b == '-' && !inNumber && !negative) {
+                negative = true;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                endToken();
+            } else if (b == '\n') {
+                endRow();
+            } else {
+                badRow = true;
+            }
+        }
+    }
+
+    private void endToken() {
+        if (inNumber) {
+            long v = negative ? -value : value;
+            if (v != (int) v) {
+                badRow = true; // out of int range, as Integer.parseInt would reject
+            } else if (field < FIELDS) {
+                fields[field] = (int) v;
+            }
+            field++;
+        } else if (negative) {
+            badRow = true; // a lone '-'
+        }
+        inNumber = false;
+        negative = false;
+        value = 0;
+    }
+
+    private void endRow() {
+        endToken();
+        if (!header && !badRow && field >= FIELDS) {
+            sink.add(fields[0], fields[1], fields[2], fields[3]);
+            rows++;
+        }
+        field = 0;
+        badRow = false;
+    }
+}
@@ -0,0 +1,561 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Deterministic, parallel generator of synthetic benchmark inputs:
+ * <ul>
+ *   <li>process traces in the {@link BinaryTrace} format, with Poisson or bursty arrivals,
+ *       burst times from a {@link Shape} (Pareto and lognormal for heavy tails) and a
+ *       weighted priority mix;</li>
+ *   <li>page-reference strings in the packed {@link ReferenceTrace} format, Zipf-distributed
+ *       over all pages or over a working set that moves every phase;</li>
+ *   <li>allocation request streams in the {@link AllocationTrace} text format, keeping about
+ *       a target number of allocations live.</li>
+ * </ul>
+ *
+ * Output is cut into chunks of {@link #CHUNK} entries. Each chunk draws from its own
+ * {@link SplittableRandom}, split off a root generator in chunk order before any work starts,
+ * so the output depends only on the seed and the settings — never on the thread count. Chunks
+ * are generated on a {@link ForkJoinPool}: binary outputs are written by each chunk straight
+ * into its own mapped region of the file, and the text output is formatted in parallel a batch
+ * at a time and appended in order. Memory use is a few chunks per thread whatever the size.
+ *
+ * Chunks are independent by construction: process arrivals are stored as deltas (so no prefix
+ * sum crosses chunks), the bursty-arrival state starts afresh in each chunk, and every chunk of
+ * an allocation stream frees its own survivors at its last timestamp. Working-set phases are
+ * placed by global position, so they ignore chunk boundaries.
+ *
+ * Usage:
+ * <pre>
+ * java WorkloadGenerator processes out.bin   --count N [--arrivals poisson|bursty] [--mean-gap G]
+ *                        [--bursts SHAPE] [--mean-burst B] [--priorities 1:40,2:30,3:20,4:10]
+ * java WorkloadGenerator pages out.bin       --count N [--pages P] [--zipf S]
+ *                        [--phase-length L --working-set W [--escape E]]
+ * java WorkloadGenerator allocations out.txt --count N [--sizes SHAPE] [--mean-size M] [--live K]
+ * common options: [--seed 42] [--threads T]; SHAPE is uniform, exponential, pareto or lognormal
+ * </pre>
+ */
+public class WorkloadGenerator {
+
+    /** Entries per chunk. */
+    public static final int CHUNK = 1 << 20;
+
+    /** Distributions with a given mean, for burst times and allocation sizes. */
+    public enum Shape {
+        UNIFORM {
+            double sample(SplittableRandom r, double mean) {
+                return r.nextDouble() * 2 * mean;
+            }
+        },
+        EXPONENTIAL {
+            double sample(SplittableRandom r, double mean) {
+                return -mean * Math.log(1 - r.nextDouble());
+            }
+        },
+        /** Pareto with shape 1.5: finite mean, infinite variance. */
+        PARETO {
+            double sample(SplittableRandom r, double mean) {
+                double alpha = 1.5, scale = mean * (alpha - 1) / alpha;
+                return scale / Math.pow(1 - r.nextDouble(), 1 / alpha);
+            }
+        },
+        /** Lognormal with sigma 1. */
+        LOGNORMAL {
+            double sample(SplittableRandom r, double mean) {
+                double sigma = 1, mu = Math.log(mean) - sigma * sigma / 2;
+                return Math.exp(mu + sigma * r.nextGaussian());
+            }
+        };
+
+        abstract double sample(SplittableRandom r, double mean);
+
+        /** A sample rounded to an int in [min, Integer.MAX_VALUE / 4]. */
+        int sampleInt(SplittableRandom r, double mean, int min) {
+            return (int) Math.max(min, Math.min(Integer.MAX_VALUE / 4, Math.round(sample(r, mean))));
+        }
+    }
+
+    /** Arrival processes. */
+    public enum Arrivals {
+        /** Exponential gaps: a Poisson process. */
+        POISSON,
+        /**
+         * Two-state on/off process: exponential gaps of 0.2x the mean gap in a burst and 1.8x
+         * between bursts, switching state after each arrival with probability 1/64.
+         */
+        BURSTY
+    }
+
+    private final long seed;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Processes
+    private Arrivals arrivals = Arrivals.POISSON;
+    private double meanGap = 4;
+    private Shape bursts = Shape.PARETO;
+    private double meanBurst = 10;
+    private int[] priorityValues = { 1, 2, 3, 4 };
+    private double[] priorityCumulative = { 0.4, 0.7, 0.9, 1.0 };
+
+    // Pages
+    private int pages = 1 << 20;
+    private double zipf = 0.9;
+    private long phaseLength;       // 0: one Zipf over all pages
+    private int workingSet;
+    private double escape;
+
+    // Allocations
+    private Shape sizes = Shape.LOGNORMAL;
+    private double meanSize = 170;
+    private int live = 1000;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public WorkloadGenerator threads(int n) {
+        this.threads = Math.max(1, n);
+        return this;
+    }
+
+    public WorkloadGenerator arrivals(Arrivals a, double meanGap) {
+        if (meanGap < 0) throw new IllegalArgumentException("Negative mean gap: " + meanGap);
+        this.arrivals = a;
+        this.meanGap = meanGap;
+        return this;
+    }
+
+    public WorkloadGenerator bursts(Shape shape, double mean) {
+        if (mean <= 0) throw new IllegalArgumentException("Mean burst must be positive: " + mean);
+        this.bursts = shape;
+        this.meanBurst = mean;
+        return this;
+    }
+
+    /** Priority mix as {@code value:weight} pairs, e.g. {@code "1:40,2:30,3:20,4:10"}. */
+    public WorkloadGenerator priorities(String mix) {
+        String[] parts = mix.split(",");
+        int[] values = new int[parts.length];
+        double[] cumulative = new double[parts.length];
+        double total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            String[] vw = parts[i].split(":");
+            values[i] = Integer.parseInt(vw[0].trim());
+            double w = vw.length > 1 ? Double.parseDouble(vw[1].trim()) : 1;
+            if (w < 0) throw new IllegalArgumentException("Negative weight in priority mix: " + mix);
+            total += w;
+            cumulative[i] = total;
+        }
+        if (total <= 0) throw new IllegalArgumentException("Priority mix has no weight: " + mix);
+        for (int i = 0; i < cumulative.length; i++) cumulative[i] /= total;
+        this.priorityValues = values;
+        this.priorityCumulative = cumulative;
+        return this;
+    }
+
+    /** Zipf exponent {@code s} over {@code pages} pages (page 0 is the hottest). */
+    public WorkloadGenerator zipf(int pages, double s) {
+        if (pages <= 0) throw new IllegalArgumentException("Page count must be positive: " + pages);
+        this.pages = pages;
+        this.zipf = s;
+        return this;
+    }
+
+    /**
+     * Working-set phases: every {@code length} references a new window of {@code workingSet}
+     * consecutive pages is chosen, references follow the Zipf law within it, and a share
+     * {@code escape} of them goes to a uniformly random page instead. Length 0 turns phases off.
+     */
+    public WorkloadGenerator phases(long length, int workingSet, double escape) {
+        if (length > 0 && workingSet <= 0) {
+            throw new IllegalArgumentException("Working set must be positive: " + workingSet);
+        }
+        this.phaseLength = length;
+        this.workingSet = workingSet;
+        this.escape = escape;
+        return this;
+    }
+
+    public WorkloadGenerator sizes(Shape shape, double mean) {
+        if (mean <= 0) throw new IllegalArgumentException("Mean size must be positive: " + mean);
+        this.sizes = shape;
+        this.meanSize = mean;
+        return this;
+    }
+
+    /** Target number of live allocations (at most {@link #CHUNK}). */
+    public WorkloadGenerator live(int n) {
+        if (n <= 0 || n > CHUNK) throw new IllegalArgumentException("Live target out of range: " + n);
+        this.live = n;
+        return this;
+    }
+
+    /**
+     * Writes {@code count} processes as a delta-arrival {@link BinaryTrace}. Pids are 1..count.
+     * Arrival times are cumulative gaps; keep {@code count * meanGap} below 2^31.
+     */
+    public void processes(Path file, int count) throws IOException {
+        long bytes = BinaryTrace.HEADER_BYTES + 16L * count;
+        if (count < 0 || bytes > Integer.MAX_VALUE) {
+            throw new IOException("Too many processes for one binary trace: " + count);
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(BinaryTrace.MAGIC)
+               .putShort(BinaryTrace.VERSION)
+               .putShort(BinaryTrace.FLAG_DELTA_ARRIVALS)
+               .putLong(count);
+            IntBuffer ints = buf.asIntBuffer();   // starts after the header
+
+            SplittableRandom[] rngs = chunkRandoms(chunks(count));
+            run(rngs.length, c -> {
+                int from = c * CHUNK, n = Math.min(CHUNK, count - from);
+                SplittableRandom r = rngs[c];
+                int[] pid = new int[n], gap = new int[n], burst = new int[n], priority = new int[n];
+                boolean inBurst = false;
+                for (int i = 0; i < n; i++) {
+                    pid[i] = from + i + 1;
+                    double mean = meanGap;
+                    if (arrivals == Arrivals.BURSTY) {
+                        if (r.nextInt(64) == 0) inBurst = !inBurst;
+                        mean *= inBurst ? 0.2 : 1.8;
+                    }
+                    gap[i] = (i == 0 && c == 0) ? 0 : Shape.EXPONENTIAL.sampleInt(r, mean, 0);
+                    burst[i] = bursts.sampleInt(r, meanBurst, 1);
+                    priority[i] = pickPriority(r.nextDouble());
+                }
+                put(ints, from, pid);
+                put(ints, count + from, gap);
+                put(ints, 2 * count + from, burst);
+                put(ints, 3 * count + from, priority);
+            });
+            buf.force();
+        }
+    }
+
+    /** Writes {@code count} page references as packed little-endian ints. */
+    public void pages(Path file, long count) throws IOException {
+        int ranks = phaseLength > 0 ? Math.min(workingSet, pages) : pages;
+        Alias zipfTable = new Alias(ranks, zipf);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (count > 0) ch.write(ByteBuffer.allocate(1), 4 * count - 1); // size the file up front
+
+            SplittableRandom[] rngs = chunkRandoms(chunks(count));
+            run(rngs.length, c -> {
+                long from = (long) c * CHUNK;
+                int n = (int) Math.min(CHUNK, count - from);
+                SplittableRandom r = rngs[c];
+                int[] refs = new int[n];
+                long phase = -1;
+                int base = 0;
+                for (int i = 0; i < n; i++) {
+                    if (phaseLength == 0) {
+                        refs[i] = zipfTable.sample(r);
+                        continue;
+                    }
+                    long p = (from + i) / phaseLength;
+                    if (p != phase) {
+                        phase = p;
+                        base = new SplittableRandom(seed ^ (p * 0x9E3779B97F4A7C15L)).nextInt(pages);
+                    }
+                    refs[i] = r.nextDouble() < escape ? r.nextInt(pages) : (base + zipfTable.sample(r)) % pages;
+                }
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 4 * from, 4L * n);
+                map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(refs);
+                map.force();
+            });
+        }
+    }
+
+    /**
+     * Writes about {@code count} allocation events in the {@link AllocationTrace} text format,
+     * one time unit per event. Each chunk also frees its remaining allocations at its last
+     * timestamp, so a file holds slightly more than {@code count} lines.
+     */
+    public void allocations(Path file, long count) throws IOException {
+        int chunks = chunks(count);
+        SplittableRandom[] rngs = chunkRandoms(chunks);
+        int batch = 2 * threads;
+        byte[][] text = new byte[batch][];
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                                               StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap("# time  op     id   size\n".getBytes(StandardCharsets.US_ASCII)));
+            for (int first = 0; first < chunks; first += batch) {
+                int base = first, size = Math.min(batch, chunks - first);
+                run(size, k -> text[k] = allocationChunk(base + k, count, rngs[base + k]));
+                for (int k = 0; k < size; k++) {
+                    ByteBuffer out = ByteBuffer.wrap(text[k]);
+                    while (out.hasRemaining()) ch.write(out);
+                    text[k] = null;
+                }
+            }
+        }
+    }
+
+    private byte[] allocationChunk(int c, long count, SplittableRandom r) {
+        long from = (long) c * CHUNK;
+        int n = (int) Math.min(CHUNK, count - from);
+        int idBase = c * CHUNK;
+        int[] alive = new int[Math.min(n, 2 * live) + 1];
+        int aliveCount = 0, nextId = 0;
+        Ascii out = new Ascii(n * 20);
+        for (int i = 0; i < n; i++) {
+            long t = from + i;
+            boolean alloc = aliveCount == 0 || (aliveCount < alive.length && r.nextInt(2 * live) >= aliveCount);
+            if (alloc) {
+                int id = idBase + nextId++;
+                alive[aliveCount++] = id;
+                out.number(t).text(" alloc ").number(id).text(" ").number(sizes.sampleInt(r, meanSize, 1)).newline();
+            } else {
+                int k = r.nextInt(aliveCount);
+                out.number(t).text(" free ").number(alive[k]).newline();
+                alive[k] = alive[--aliveCount];
+            }
+        }
+        long last = from + n - 1;
+        for (int k = 0; k < aliveCount; k++) {
+            out.number(last).text(" free ").number(alive[k]).newline();
+        }
+        return out.toBytes();
+    }
+
+    private int pickPriority(double u) {
+        int i = Arrays.binarySearch(priorityCumulative, u);
+        if (i < 0) i = -i - 1;
+        return priorityValues[Math.min(i, priorityValues.length - 1)];
+    }
+
+    private static int chunks(long count) {
+        long c = (count + CHUNK - 1) / CHUNK;
+        if (c > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many entries: " + count);
+        return (int) c;
+    }
+
+    /** One generator per chunk, split off the root in chunk order. */
+    private SplittableRandom[] chunkRandoms(int chunks) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rngs = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) rngs[c] = root.split();
+        return rngs;
+    }
+
+    private static void put(IntBuffer ints, int index, int[] values) {
+        IntBuffer view = ints.duplicate();
+        view.position(index);
+        view.put(values);
+    }
+
+    /** Work on one chunk; may throw I/O errors. */
+    private interface ChunkWork {
+        void run(int chunk) throws IOException;
+    }
+
+    /** Runs chunks 0..n-1 on a pool of {@link #threads} workers. */
+    private void run(int n, ChunkWork work) throws IOException {
+        if (n == 0) return;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new ChunkTask(work, 0, n));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Splits the chunk range in halves until a single chunk remains, then generates it. */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ChunkWork work;
+        private final int from, to;
+
+        ChunkTask(ChunkWork work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    work.run(from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(work, from, mid), new ChunkTask(work, mid, to));
+        }
+    }
+
+    /**
+     * Walker/Vose alias table for the Zipf law over ranks 0..n-1 (weight {@code 1/(k+1)^s}):
+     * O(n) to build, O(1) per sample. Read-only once built, so chunks share it.
+     */
+    private static final class Alias {
+        private final double[] probability;
+        private final int[] alias;
+
+        Alias(int n, double s) {
+            probability = new double[n];
+            alias = new int[n];
+            double[] scaled = new double[n];
+            double total = 0;
+            for (int k = 0; k < n; k++) {
+                scaled[k] = Math.pow(k + 1, -s);
+                total += scaled[k];
+            }
+            int[] small = new int[n], large = new int[n];
+            int ns = 0, nl = 0;
+            for (int k = 0; k < n; k++) {
+                scaled[k] *= n / total;
+                if (scaled[k] < 1) small[ns++] = k; else large[nl++] = k;
+            }
+            while (ns > 0 && nl > 0) {
+                int l = small[--ns], g = large[--nl];
+                probability[l] = scaled[l];
+                alias[l] = g;
+                scaled[g] -= 1 - scaled[l];
+                if (scaled[g] < 1) small[ns++] = g; else large[nl++] = g;
+            }
+            while (nl > 0) probability[large[--nl]] = 1;
+            while (ns > 0) probability[small[--ns]] = 1; // rounding leftovers
+        }
+
+        int sample(SplittableRandom r) {
+            int k = r.nextInt(probability.length);
+            return r.nextDouble() < probability[k] ? k : alias[k];
+        }
+    }
+
+    /** Minimal ASCII line builder, so formatting a line allocates nothing. */
+    private static final class Ascii {
+        private byte[] b;
+        private int n;
+        private final byte[] digits = new byte[20];
+
+        Ascii(int capacity) {
+            b = new byte[Math.max(64, capacity)];
+        }
+
+        Ascii number(long v) {
+            int d = 0;
+            do {
+                digits[d++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v > 0);
+            ensure(d);
+            while (d > 0) b[n++] = digits[--d];
+            return this;
+        }
+
+        Ascii text(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) b[n++] = (byte) s.charAt(i);
+            return this;
+        }
+
+        Ascii newline() {
+            ensure(1);
+            b[n++] = '\n';
+            return this;
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(b, n);
+        }
+
+        private void ensure(int extra) {
+            if (n + extra > b.length) b = Arrays.copyOf(b, Math.max(n + extra, b.length << 1));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java WorkloadGenerator processes|pages|allocations <output> [options]");
+            System.exit(2);
+        }
+        String kind = args[0];
+        Path out = Paths.get(args[1]);
+        long count = 1_000_000, seed = 42;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Arrivals arrivals = Arrivals.POISSON;
+        double meanGap = 4, meanBurst = 10, zipf = 0.9, escape = 0.05, meanSize = 170;
+        Shape bursts = Shape.PARETO, sizes = Shape.LOGNORMAL;
+        String priorities = "1:40,2:30,3:20,4:10";
+        int pages = 1 << 20, workingSet = 4096, live = 1000;
+        long phaseLength = 0;
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count":        count = Long.parseLong(args[++i]); break;
+                case "--seed":         seed = Long.parseLong(args[++i]); break;
+                case "--threads":      threads = Integer.parseInt(args[++i]); break;
+                case "--arrivals":     arrivals = Arrivals.valueOf(args[++i].toUpperCase()); break;
+                case "--mean-gap":     meanGap = Double.parseDouble(args[++i]); break;
+                case "--bursts":       bursts = Shape.valueOf(args[++i].toUpperCase()); break;
+                case "--mean-burst":   meanBurst = Double.parseDouble(args[++i]); break;
+                case "--priorities":   priorities = args[++i]; break;
+                case "--pages":        pages = Integer.parseInt(args[++i]); break;
+                case "--zipf":         zipf = Double.parseDouble(args[++i]); break;
+                case "--phase-length": phaseLength = Long.parseLong(args[++i]); break;
+                case "--working-set":  workingSet = Integer.parseInt(args[++i]); break;
+                case "--escape":       escape = Double.parseDouble(args[++i]); break;
+                case "--sizes":        sizes = Shape.valueOf(args[++i].toUpperCase()); break;
+                case "--mean-size":    meanSize = Double.parseDouble(args[++i]); break;
+                case "--live":         live = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        WorkloadGenerator gen = new WorkloadGenerator(seed).threads(threads)
+                .arrivals(arrivals, meanGap).bursts(bursts, meanBurst).priorities(priorities)
+                .zipf(pages, zipf).phases(phaseLength, workingSet, escape)
+                .sizes(sizes, meanSize).live(live);
+
+        long start = System.nanoTime();
+        switch (kind) {
+            case "processes":
+                if (count > Integer.MAX_VALUE) {
+                    System.err.println("Too many processes: " + count);
+                    System.exit(2);
+                }
+                gen.processes(out, (int) count);
+                break;
+            case "pages":       gen.pages(out, count); break;
+            case "allocations": gen.allocations(out, count); break;
+            default:
+                System.err.println("Unknown workload: " + kind);
+                System.exit(2);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d %s to %s in %.2f s (%.1f M/s)%n",
+                          count, kind, out, seconds, count / seconds / 1e6);
+    }
+}